@@ -0,0 +1,218 @@
+/**
+ * The BloomFilter class answers "might this key have been added?" in a few bit tests,
+ * with no false negatives and a configurable rate of false positives, so a table can
+ * turn away most searches for absent keys before probing. It is a blocked Bloom filter:
+ * each key sets and tests all of its bits inside one 512-bit block, the size of a cache
+ * line, so a lookup costs one cache miss however many bits it tests. Blocks fill
+ * unevenly, which raises the false-positive rate a little above that of a classic
+ * filter of the same size.
+ *
+ * Keys cannot be removed, and a filter that is given more keys than it was sized for
+ * answers more false positives. The filter also counts the lookups that pass through
+ * it, for reporting. A key deleted from the table stays in the filter, so a search for
+ * it is let through and counted as a false positive; the filter counts the deleted
+ * keys too, so a report can tell those lookups apart from misses of the filter itself.
+ *
+ * @author Jeremiah Robinson
+ */
+public class BloomFilter {
+    private static final int BLOCK_BITS = 512;
+    private static final int WORDS_PER_BLOCK = BLOCK_BITS / Long.SIZE;
+
+    private final long[] words;
+    private final int numBlocks;
+    private final int numHashes;
+    private final double falsePositiveRate;
+    private long queryCount;
+    private long rejectionCount;
+    private long falsePositiveCount;
+    private long deletedCount;
+
+    /**
+     * Constructs a new, empty BloomFilter sized for the given number of keys. It gets
+     * -n ln(p) / ln(2)^2 bits, rounded up to whole blocks, and ln(2) times the bits per
+     * key hash functions, which minimizes the false-positive rate for that size.
+     *
+     * @param expectedKeys the number of keys the filter will hold
+     * @param falsePositiveRate the fraction of absent keys it may let through, in (0, 1)
+     * @throws IllegalArgumentException if expectedKeys is less than 1 or falsePositiveRate is not in (0, 1)
+     */
+    public BloomFilter(int expectedKeys, double falsePositiveRate) {
+        if (expectedKeys < 1) {
+            throw new IllegalArgumentException("Expected number of keys must be positive: " + expectedKeys);
+        }
+        if (!(falsePositiveRate > 0.0 && falsePositiveRate < 1.0)) {
+            throw new IllegalArgumentException("False positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        double bits = -expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.numBlocks = (int) Math.max(1, Math.ceil(bits / BLOCK_BITS));
+        this.numHashes = (int) Math.max(1, Math.min(BLOCK_BITS / 8, Math.round(bits / expectedKeys * Math.log(2))));
+        this.words = new long[numBlocks * WORDS_PER_BLOCK];
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Adds a key to the filter
+     *
+     * @param key the key
+     */
+    public void add(Object key) {
+        long hash = spread(key.hashCode());
+        int base = blockOf(hash) * WORDS_PER_BLOCK;
+        long bits = hash * 0x9e3779b97f4a7c15L;
+        int h1 = (int) bits;
+        int h2 = (int) (bits >>> 32) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+            words[base + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Tests whether a key might have been added, and counts the lookup
+     *
+     * @param key the key
+     * @return false if the key was certainly never added, true if it might have been
+     */
+    public boolean mightContain(Object key) {
+        queryCount++;
+        long hash = spread(key.hashCode());
+        int base = blockOf(hash) * WORDS_PER_BLOCK;
+        long bits = hash * 0x9e3779b97f4a7c15L;
+        int h1 = (int) bits;
+        int h2 = (int) (bits >>> 32) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+            if ((words[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                rejectionCount++;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts a lookup that the filter let through but that did not find its key
+     */
+    public void recordFalsePositive() {
+        falsePositiveCount++;
+    }
+
+    /**
+     * Counts a key that was deleted from the table but is still set in the filter
+     */
+    public void recordDeletion() {
+        deletedCount++;
+    }
+
+    /**
+     * Returns the size of the filter
+     *
+     * @return the number of bits
+     */
+    public long getBitCount() {
+        return (long) words.length * Long.SIZE;
+    }
+
+    /**
+     * Returns the number of bits each key sets
+     *
+     * @return the number of hash functions
+     */
+    public int getHashCount() {
+        return numHashes;
+    }
+
+    /**
+     * Returns the false-positive rate the filter was sized for
+     *
+     * @return the target rate
+     */
+    public double getTargetFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * Returns the number of lookups
+     *
+     * @return the number of calls to mightContain()
+     */
+    public long getQueryCount() {
+        return queryCount;
+    }
+
+    /**
+     * Returns the number of lookups the filter answered on its own
+     *
+     * @return the number of keys found certainly absent
+     */
+    public long getRejectionCount() {
+        return rejectionCount;
+    }
+
+    /**
+     * Returns the number of lookups let through that did not find their key
+     *
+     * @return the number of false positives recorded
+     */
+    public long getFalsePositiveCount() {
+        return falsePositiveCount;
+    }
+
+    /**
+     * Returns the number of deleted keys the filter still lets through
+     *
+     * @return the number of deletions recorded
+     */
+    public long getDeletedCount() {
+        return deletedCount;
+    }
+
+    /**
+     * Returns the measured false-positive rate: the fraction of lookups for absent keys
+     * that the filter let through
+     *
+     * @return the rate, or 0 if no absent key was looked up
+     */
+    public double getFalsePositiveRate() {
+        long absent = rejectionCount + falsePositiveCount;
+        return absent == 0 ? 0 : (double) falsePositiveCount / absent;
+    }
+
+    /**
+     * Returns the size and lookup counts of the filter as one line of text
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        return getBitCount() + " bits, " + numHashes + " hashes; " + queryCount + " lookups, " + rejectionCount
+                + " answered by the filter, " + falsePositiveCount + " false positives ("
+                + String.format("%.2f%%", 100 * getFalsePositiveRate()) + ", target "
+                + String.format("%.2f%%", 100 * falsePositiveRate) + ")"
+                + (deletedCount > 0 ? "; " + deletedCount + " deleted keys still set, found as false positives" : "");
+    }
+
+    /**
+     * Spreads a hash code over 64 bits. The block is picked from the high half, and
+     * the bits within it from a second multiply of the whole hash.
+     *
+     * @param hashCode the hash code of a key
+     * @return the 64-bit hash
+     */
+    private static long spread(int hashCode) {
+        long hash = hashCode * 0x9e3779b97f4a7c15L;
+        hash = (hash ^ (hash >>> 32)) * 0xd6e8feb86659fd93L;
+        return hash ^ (hash >>> 32);
+    }
+
+    /**
+     * Returns the block a 64-bit hash falls in, from its high bits
+     *
+     * @param hash the 64-bit hash of a key
+     * @return the block number
+     */
+    private int blockOf(long hash) {
+        return (int) (((hash >>> 32) * numBlocks) >>> 32);
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * The ConcurrentDoubleHashing class extends the ConcurrentHashtable class and implements the
+ * double hashing strategy for open addressing in hash tables shared between threads
+ *
+ * @author Jeremiah Robinson
+ */
+public class ConcurrentDoubleHashing extends ConcurrentHashtable {
+
+    /**
+     * Constructs a new ConcurrentDoubleHashing hashtable with the specified capacity
+     *
+     * @param size the capacity of the hashtable
+     */
+    public ConcurrentDoubleHashing(int size) {
+        super(size);
+    }
+
+    /**
+     * Computes the secondary hash function
+     *
+     * @param key the key to be hashed
+     * @param capacity the capacity of the table being probed
+     * @return the result of the secondary hash function
+     */
+    private int h2(Object key, int capacity) {
+        return 1 + positiveMod(mixedHashCode(key), capacity - 2);
+    }
+
+    /**
+     * Probes the hashtable using the double hashing strategy
+     *
+     * @param key the key to be hashed
+     * @param probeNum the probe number
+     * @param capacity the capacity of the table being probed
+     * @return the index in the hashtable for the given key and probe number
+     */
+    @Override
+    public int hash(Object key, int probeNum, int capacity) {
+        return positiveMod(h1(key, capacity) + probeNum * h2(key, capacity), capacity);
+    }
+}
@@ -0,0 +1,204 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The ConcurrentHashtable class is an abstract hash table with open addressing that any
+ * number of threads can insert into and search at the same time without locks. A new
+ * key claims its slot with a compare-and-set on the table array; a thread that loses the
+ * race re-reads the slot and either finds the key it was racing on or keeps probing.
+ * Duplicates bump the frequency count atomically and the running totals are kept in
+ * LongAdders, so threads do not contend on a single counter.
+ *
+ * Entries are fully built before the compare-and-set publishes them, and slots are read
+ * with acquire semantics, so a thread never sees a half-initialized HashObject. Keys are
+ * never moved once placed, so the capacity is fixed.
+ *
+ * @author Jeremiah Robinson
+ */
+public abstract class ConcurrentHashtable extends Hashtable {
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(HashObject[].class);
+
+    private final LongAdder concurrentNumElements = new LongAdder();
+    private final LongAdder concurrentInsertionCount = new LongAdder();
+    private final LongAdder concurrentDuplicateCount = new LongAdder();
+
+    /**
+     * Constructs a new ConcurrentHashtable with the specified capacity
+     *
+     * @param size the capacity of the hashtable
+     */
+    public ConcurrentHashtable(int size) {
+        super(size);
+    }
+
+    /**
+     * Concurrent tables have a fixed capacity
+     *
+     * @param maxLoadFactor must be 1.0
+     * @throws UnsupportedOperationException if maxLoadFactor is not 1.0
+     */
+    @Override
+    public void setMaxLoadFactor(double maxLoadFactor) {
+        if (maxLoadFactor != 1.0) {
+            throw new UnsupportedOperationException("Concurrent hashtables do not grow");
+        }
+        super.setMaxLoadFactor(maxLoadFactor);
+    }
+
+    /**
+     * Concurrent tables have a fixed capacity
+     *
+     * @param slotsPerOperation must be 0
+     * @throws UnsupportedOperationException if slotsPerOperation is not 0
+     */
+    @Override
+    public void setIncrementalResize(int slotsPerOperation) {
+        if (slotsPerOperation != 0) {
+            throw new UnsupportedOperationException("Concurrent hashtables do not grow");
+        }
+    }
+
+    /**
+     * Statistics are recorded without synchronization, so concurrent tables do not keep them
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void enableStatistics() {
+        throw new UnsupportedOperationException("Concurrent hashtables do not record statistics");
+    }
+
+    /**
+     * Heavy hitters are updated without synchronization, so concurrent tables do not keep them
+     *
+     * @param k the number of keys to keep
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void enableHeavyHitters(int k) {
+        throw new UnsupportedOperationException("Concurrent hashtables do not keep heavy hitters");
+    }
+
+    /**
+     * The Bloom filter is updated without synchronization, so concurrent tables do not keep one
+     *
+     * @param expectedKeys the number of keys the filter is sized for
+     * @param falsePositiveRate the fraction of absent keys it may let through
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void enableBloomFilter(int expectedKeys, double falsePositiveRate) {
+        throw new UnsupportedOperationException("Concurrent hashtables do not keep a Bloom filter");
+    }
+
+    /**
+     * Inserts the specified key into the hashtable. Safe to call from several threads.
+     *
+     * @param key the key to be inserted
+     * @return the number of probes required to insert the key, or -1 if the key is a duplicate or the table is full
+     */
+    @Override
+    public int insert(Object key) {
+        HashObject obj = null;
+
+        for (int i = 0; i < size; i++) {
+            int index = hash(key, i);
+            HashObject current = (HashObject) SLOTS.getAcquire(table, index);
+            if (current == null) {
+                if (obj == null) {
+                    obj = new HashObject(key);
+                }
+                obj.setProbeCount(i + 1);
+                if (SLOTS.compareAndSet(table, index, null, obj)) {
+                    concurrentNumElements.increment();
+                    concurrentInsertionCount.add(i + 1);
+                    return i + 1;
+                }
+                // Another thread claimed the slot first, check whether it holds our key
+                current = (HashObject) SLOTS.getAcquire(table, index);
+            }
+            if (current.getKey().equals(key)) {
+                current.incrementFrequencyCountAtomically();
+                concurrentDuplicateCount.increment();
+                return -1; // Indicate duplicate
+            }
+        }
+
+        System.out.println("Table is full, could not insert key: " + key);
+        return -1; // Table is full
+    }
+
+    /**
+     * Searches for the specified key in the hashtable. Safe to call while other threads insert.
+     *
+     * @param key the key to be searched for
+     * @return the number of probes required to find the key, or -1 if the key is not found
+     */
+    @Override
+    public int search(Object key) {
+        for (int i = 0; i < size; i++) {
+            HashObject current = (HashObject) SLOTS.getAcquire(table, hash(key, i));
+            if (current == null) {
+                return -1; // Key not found
+            } else if (current.getKey().equals(key)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts the specified keys one at a time, since another thread can claim a home slot
+     * between a batch reading it and an insert using it
+     *
+     * @param keys the keys to be inserted
+     * @return for each key, the number of probes required to insert it, or -1 if it was a duplicate or the table was full
+     */
+    @Override
+    public int[] insertAll(Object[] keys) {
+        return insertEach(keys);
+    }
+
+    /**
+     * Searches for the specified keys one at a time, since every slot has to be read with
+     * acquire semantics
+     *
+     * @param keys the keys to be searched for
+     * @return for each key, the number of probes required to find it, or -1 if it was not found
+     */
+    @Override
+    public int[] searchAll(Object[] keys) {
+        return searchEach(keys);
+    }
+
+    /**
+     * Returns the number of distinct keys stored in the hashtable
+     *
+     * @return the number of distinct keys
+     */
+    @Override
+    public int getNumElements() {
+        return concurrentNumElements.intValue();
+    }
+
+    /**
+     * Returns the total number of duplicate keys in the hashtable
+     *
+     * @return the total number of duplicate keys
+     */
+    @Override
+    public int getDuplicateCount() {
+        return concurrentDuplicateCount.intValue();
+    }
+
+    /**
+     * Returns the total number of insertions (probes) in the hashtable
+     *
+     * @return the total number of insertions
+     */
+    @Override
+    public int getInsertionCount() {
+        return concurrentInsertionCount.intValue();
+    }
+}
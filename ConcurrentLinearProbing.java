@@ -0,0 +1,30 @@
+/**
+ * The ConcurrentLinearProbing class extends the ConcurrentHashtable class and implements the
+ * linear probing strategy for open addressing in hash tables shared between threads
+ *
+ * @author Jeremiah Robinson
+ */
+public class ConcurrentLinearProbing extends ConcurrentHashtable {
+
+    /**
+     * Constructs a new ConcurrentLinearProbing hashtable with the specified capacity
+     *
+     * @param size the capacity of the hashtable
+     */
+    public ConcurrentLinearProbing(int size) {
+        super(size);
+    }
+
+    /**
+     * Probes the hashtable using the linear probing strategy
+     *
+     * @param key the key to be hashed
+     * @param probeNum the probe number
+     * @param capacity the capacity of the table being probed
+     * @return the index in the hashtable for the given key and probe number
+     */
+    @Override
+    public int hash(Object key, int probeNum, int capacity) {
+        return positiveMod(h1(key, capacity) + probeNum, capacity);
+    }
+}
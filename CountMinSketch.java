@@ -0,0 +1,133 @@
+/**
+ * The CountMinSketch class estimates how often each key of a stream has been seen in a
+ * fixed amount of memory, however many distinct keys the stream has. It keeps depth rows
+ * of width counters; every key maps to one counter per row through an independently
+ * seeded hash, and its estimate is the smallest of its counters. Other keys that share a
+ * counter can only push it up, so an estimate never falls below the true count, and with
+ * width = e / epsilon and depth = ln(1 / delta) it exceeds the true count by more than
+ * epsilon times the stream length with probability at most delta.
+ *
+ * Counting uses conservative update: a key only raises the counters that are below its
+ * new estimate, which keeps estimates tighter than incrementing every row.
+ *
+ * @author Jeremiah Robinson
+ */
+public class CountMinSketch {
+    private final int width;
+    private final int depth;
+    private final long[] counters;
+    private final HashMixer[] rowMixers;
+    private long totalCount;
+
+    /**
+     * Constructs a new, empty CountMinSketch
+     *
+     * @param width the number of counters per row
+     * @param depth the number of rows
+     * @throws IllegalArgumentException if width or depth is less than 1
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Width and depth must be positive: " + width + " x " + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new long[width * depth];
+        this.rowMixers = new HashMixer[depth];
+        for (int row = 0; row < depth; row++) {
+            rowMixers[row] = HashMixer.seeded(0x9e3779b9 * (row + 1));
+        }
+    }
+
+    /**
+     * Constructs a CountMinSketch sized for the given error bounds
+     *
+     * @param epsilon the overestimate allowed, as a fraction of the stream length
+     * @param delta the probability of exceeding it
+     * @return the empty sketch
+     * @throws IllegalArgumentException if epsilon or delta is not in (0, 1)
+     */
+    public static CountMinSketch withError(double epsilon, double delta) {
+        if (!(epsilon > 0.0 && epsilon < 1.0) || !(delta > 0.0 && delta < 1.0)) {
+            throw new IllegalArgumentException("Epsilon and delta must be in (0, 1): " + epsilon + ", " + delta);
+        }
+        return new CountMinSketch((int) Math.ceil(Math.E / epsilon), (int) Math.ceil(Math.log(1.0 / delta)));
+    }
+
+    /**
+     * Counts one occurrence of a key
+     *
+     * @param key the key
+     * @return the new estimate of the key's count
+     */
+    public long add(Object key) {
+        int hashCode = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[counterIndex(row, hashCode)]);
+        }
+        estimate++;
+        for (int row = 0; row < depth; row++) {
+            int index = counterIndex(row, hashCode);
+            if (counters[index] < estimate) {
+                counters[index] = estimate;
+            }
+        }
+        totalCount++;
+        return estimate;
+    }
+
+    /**
+     * Returns the estimated count of a key
+     *
+     * @param key the key
+     * @return the estimate, at least the number of times the key was added
+     */
+    public long estimate(Object key) {
+        int hashCode = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[counterIndex(row, hashCode)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the number of keys added
+     *
+     * @return the length of the stream so far
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the number of counters per row
+     *
+     * @return the width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of rows
+     *
+     * @return the depth
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the position in the counter array of a key's counter in a row
+     *
+     * @param row the row
+     * @param hashCode the hash code of the key
+     * @return the index of the counter
+     */
+    private int counterIndex(int row, int hashCode) {
+        int hash = rowMixers[row].mix(hashCode);
+        return row * width + (int) (((hash & 0xffffffffL) * width) >>> 32);
+    }
+}
@@ -0,0 +1,394 @@
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The CuckooHashing class extends the Hashtable class and implements d-ary cuckoo
+ * hashing. Every key has a fixed number of candidate slots, derived from h1 and an
+ * independent second hash, and always lives in one of them or in a small stash. A
+ * search therefore checks at most choices + STASH_SIZE slots no matter how full the
+ * table is. Inserting into a key's candidates evicts an existing entry to one of its
+ * own candidates, up to MAX_KICKS times; an entry left without a slot goes to the stash,
+ * and when the stash is full the table grows to the next twin prime and rehashes.
+ *
+ * An entry's probe count is the number of slots a search checks to find it: the
+ * index of its candidate slot plus one, or choices plus its position in the stash plus
+ * one while it is in the stash. Searches return it and the statistics record it.
+ *
+ * @author Jeremiah Robinson
+ */
+public class CuckooHashing extends Hashtable {
+    /** Number of candidate slots per key used by the shorter constructors */
+    public static final int DEFAULT_CHOICES = 4;
+    /** Maximum number of evictions in one insert before falling back to the stash */
+    protected static final int MAX_KICKS = 500;
+    /** Number of entries the stash can hold before the table has to grow */
+    protected static final int STASH_SIZE = 8;
+
+    protected final int choices;
+    protected HashObject[] stash;
+    protected int stashCount;
+    protected long kickCount;
+    private final Random random = new Random(321);
+
+    /**
+     * Constructs a new CuckooHashing hashtable with the specified capacity
+     *
+     * @param size the capacity of the hashtable
+     */
+    public CuckooHashing(int size) {
+        this(size, 1.0, DEFAULT_CHOICES);
+    }
+
+    /**
+     * Constructs a new CuckooHashing hashtable with the specified capacity that grows
+     * once it would exceed the given load factor
+     *
+     * @param size the initial capacity of the hashtable
+     * @param maxLoadFactor the maximum ratio of keys to capacity, or 1.0 to only grow when the stash is full
+     */
+    public CuckooHashing(int size, double maxLoadFactor) {
+        this(size, maxLoadFactor, DEFAULT_CHOICES);
+    }
+
+    /**
+     * Constructs a new CuckooHashing hashtable with the specified capacity, load factor
+     * and number of candidate slots per key
+     *
+     * @param size the initial capacity of the hashtable
+     * @param maxLoadFactor the maximum ratio of keys to capacity, or 1.0 to only grow when the stash is full
+     * @param choices the number of candidate slots per key, 2 for classic cuckoo hashing
+     * @throws IllegalArgumentException if choices is less than 2 or not less than size
+     */
+    public CuckooHashing(int size, double maxLoadFactor, int choices) {
+        super(size, maxLoadFactor);
+        if (choices < 2 || choices >= size) {
+            throw new IllegalArgumentException("Number of choices must be in [2, size): " + choices);
+        }
+        this.choices = choices;
+        this.stash = new HashObject[STASH_SIZE];
+    }
+
+    /**
+     * Computes the secondary hash function. It mixes the bits of the hash code again with
+     * the MurmurHash3 finalizer, so it is independent of h1 even for keys whose hash codes
+     * share a remainder.
+     *
+     * @param key the key to be hashed
+     * @param capacity the capacity of the table being probed
+     * @return the result of the secondary hash function
+     */
+    private int h2(Object key, int capacity) {
+        return 1 + positiveMod(HashMixer.MURMUR3.mix(mixedHashCode(key)), capacity - 2);
+    }
+
+    /**
+     * Computes the candidate slot with the given number for a key
+     *
+     * @param key the key to be hashed
+     * @param probeNum the candidate number, from 0 to choices - 1
+     * @param capacity the capacity of the table being probed
+     * @return the index in the hashtable of that candidate slot
+     */
+    @Override
+    public int hash(Object key, int probeNum, int capacity) {
+        return positiveMod(h1(key, capacity) + probeNum * h2(key, capacity), capacity);
+    }
+
+    /**
+     * Cuckoo hashing rehashes by re-running eviction chains, so it only supports
+     * rehashing all at once
+     *
+     * @param slotsPerOperation must be 0
+     * @throws UnsupportedOperationException if slotsPerOperation is not 0
+     */
+    @Override
+    public void setIncrementalResize(int slotsPerOperation) {
+        if (slotsPerOperation != 0) {
+            throw new UnsupportedOperationException("Cuckoo hashing does not support incremental resizing");
+        }
+    }
+
+    /**
+     * Inserts the specified key into the hashtable
+     *
+     * @param key the key to be inserted
+     * @return the number of slots a search checks to find the key, or -1 if the key is a duplicate
+     */
+    @Override
+    public int insert(Object key) {
+        HashObject existing = find(key, false);
+        if (existing != null) {
+            existing.incrementFrequencyCount();
+            recordFrequency(existing);
+            duplicateCount++;
+            return -1; // Indicate duplicate
+        }
+        if (numElements + 1 > maxLoadFactor * size) {
+            grow();
+        }
+
+        HashObject obj = new HashObject(key);
+        numElements++;
+        recordFrequency(obj);
+        HashObject homeless = tryPlace(obj);
+        if (homeless != null) {
+            rehash(nextCapacity(size), homeless);
+        }
+        return obj.getProbeCount();
+    }
+
+    /**
+     * Searches for the specified key in its candidate slots and the stash
+     *
+     * @param key the key to be searched for
+     * @return the number of slots checked to find the key, or -1 if the key is not found
+     */
+    @Override
+    public int search(Object key) {
+        if (filterRejects(key)) {
+            return -1; // Key not found
+        }
+        HashObject obj = find(key, true);
+        return obj != null ? obj.getProbeCount() : -1;
+    }
+
+    /**
+     * Inserts the specified keys one at a time, since an insert can evict entries out of
+     * home slots that later keys of a batch have already read
+     *
+     * @param keys the keys to be inserted
+     * @return for each key, the number of probes required to insert it, or -1 if it was a duplicate or the table was full
+     */
+    @Override
+    public int[] insertAll(Object[] keys) {
+        return insertEach(keys);
+    }
+
+    /**
+     * Searches for the specified keys one at a time, since a search checks a fixed set of
+     * candidate slots and the stash rather than one probe sequence
+     *
+     * @param keys the keys to be searched for
+     * @return for each key, the number of probes required to find it, or -1 if it was not found
+     */
+    @Override
+    public int[] searchAll(Object[] keys) {
+        return searchEach(keys);
+    }
+
+    /**
+     * Looks up the entry holding a key and records the lookup as part of an insert or
+     * a search
+     *
+     * @param key the key to be searched for
+     * @param searching true if the lookup is a search, false if it is part of an insert
+     * @return the entry holding the key, or null if the key is not in the table
+     */
+    private HashObject find(Object key, boolean searching) {
+        int keyComparisons = 0;
+        for (int i = 0; i < choices; i++) {
+            HashObject obj = table[hash(key, i)];
+            if (obj != null) {
+                keyComparisons++;
+                if (obj.getKey().equals(key)) {
+                    recordFind(i + 1, keyComparisons, true, searching);
+                    return obj;
+                }
+            }
+        }
+        for (int i = 0; i < stashCount; i++) {
+            keyComparisons++;
+            if (stash[i].getKey().equals(key)) {
+                recordFind(choices + i + 1, keyComparisons, true, searching);
+                return stash[i];
+            }
+        }
+        recordFind(choices + stashCount, keyComparisons, false, searching);
+        return null;
+    }
+
+    /**
+     * Records a lookup as an insert or a search, if statistics are enabled
+     *
+     * @param probes the number of slots the lookup checked
+     * @param keyComparisons the number of stored keys it compared the key with
+     * @param found whether the key was found
+     * @param searching true if the lookup is a search, false if it is part of an insert
+     */
+    private void recordFind(int probes, int keyComparisons, boolean found, boolean searching) {
+        if (searching) {
+            recordSearch(probes, keyComparisons, found);
+        } else {
+            recordInsert(probes, keyComparisons);
+        }
+    }
+
+    /**
+     * Places an entry that is not in the table, evicting entries along the way if all of
+     * its candidate slots are taken. Probe counts of every moved entry and the running
+     * insertion total are kept up to date.
+     *
+     * @param obj the entry to be placed
+     * @return null on success, or the entry left without a slot when the eviction chain
+     *         was too long and the stash is full
+     */
+    private HashObject tryPlace(HashObject obj) {
+        HashObject carried = obj;
+        int carriedProbeCount = 0;
+        int previousIndex = -1;
+
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            for (int i = 0; i < choices; i++) {
+                int index = hash(carried.getKey(), i);
+                if (table[index] == null) {
+                    table[index] = carried;
+                    carried.setProbeCount(i + 1);
+                    insertionCount += i + 1 - carriedProbeCount;
+                    return null;
+                }
+            }
+
+            // Every candidate is taken: evict one, other than the slot we were just evicted from
+            int choice;
+            int index;
+            do {
+                choice = random.nextInt(choices);
+                index = hash(carried.getKey(), choice);
+            } while (index == previousIndex);
+
+            HashObject evicted = table[index];
+            table[index] = carried;
+            carried.setProbeCount(choice + 1);
+            insertionCount += choice + 1 - carriedProbeCount;
+            carried = evicted;
+            carriedProbeCount = evicted.getProbeCount();
+            previousIndex = index;
+            kickCount++;
+        }
+
+        if (stashCount < STASH_SIZE) {
+            stash[stashCount++] = carried;
+            carried.setProbeCount(choices + stashCount);
+            insertionCount += choices + stashCount - carriedProbeCount;
+            return null;
+        }
+        insertionCount -= carriedProbeCount;
+        return carried;
+    }
+
+    /**
+     * Grows the table to the next twin prime at least GROWTH_FACTOR times the current
+     * capacity and places every entry again
+     */
+    @Override
+    protected void grow() {
+        rehash(nextCapacity(size), null);
+    }
+
+    /**
+     * Returns every entry in the hashtable, including those in the stash
+     *
+     * @return the entries, in no particular order
+     */
+    @Override
+    public List<HashObject> getEntries() {
+        List<HashObject> entries = super.getEntries();
+        for (int i = 0; i < stashCount; i++) {
+            entries.add(stash[i]);
+        }
+        return entries;
+    }
+
+    /**
+     * Places every entry, plus an optional entry that is not in the table yet, into a
+     * new table of the given capacity, growing further until every entry fits
+     *
+     * @param newSize the capacity to try first
+     * @param extra an entry to add that is not in the table or stash, or null
+     */
+    private void rehash(int newSize, HashObject extra) {
+        List<HashObject> entries = getEntries();
+        if (extra != null) {
+            entries.add(extra);
+        }
+
+        while (!placeAll(newSize, entries)) {
+            newSize = nextCapacity(newSize);
+        }
+    }
+
+    /**
+     * Tries to place all of the given entries into an empty table of the given capacity
+     *
+     * @param newSize the capacity of the new table
+     * @param entries the entries to place
+     * @return true if every entry was placed, false if an eviction chain failed with a full stash
+     */
+    private boolean placeAll(int newSize, List<HashObject> entries) {
+        size = newSize;
+        table = new HashObject[size];
+        stash = new HashObject[STASH_SIZE];
+        stashCount = 0;
+        insertionCount = 0;
+        for (HashObject obj : entries) {
+            obj.setProbeCount(0);
+        }
+        for (HashObject obj : entries) {
+            if (tryPlace(obj) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the total number of evictions performed by inserts and rehashes
+     *
+     * @return the total number of evictions
+     */
+    public long getKickCount() {
+        return kickCount;
+    }
+
+    /**
+     * Returns the number of entries currently in the stash
+     *
+     * @return the number of stashed entries
+     */
+    public int getStashCount() {
+        return stashCount;
+    }
+
+    /**
+     * Returns the largest probe count of any key, including keys in the stash
+     *
+     * @return the largest probe count, or 0 if the table is empty
+     */
+    @Override
+    public int getMaxProbeCount() {
+        return stashCount > 0 ? choices + stashCount : super.getMaxProbeCount();
+    }
+
+    /**
+     * Dumps the contents of the hashtable to the specified file, followed by the
+     * contents of the stash
+     *
+     * @param fileName the name of the file to dump the contents to
+     * @throws FileNotFoundException if the file cannot be created or opened
+     */
+    @Override
+    public void dumpToFile(String fileName) throws FileNotFoundException {
+        try (PrintWriter out = new PrintWriter(fileName)) {
+            for (int i = 0; i < table.length; i++) {
+                if (table[i] != null) {
+                    out.println("table[" + i + "]: " + table[i]);
+                }
+            }
+            for (int i = 0; i < stashCount; i++) {
+                out.println("stash[" + i + "]: " + stash[i]);
+            }
+        }
+    }
+}
@@ -15,25 +15,38 @@ public class DoubleHashing extends Hashtable {
         super(size);
     }
 
+    /**
+     * Constructs a new DoubleHashing hashtable with the specified capacity that grows
+     * once it would exceed the given load factor
+     *
+     * @param size the initial capacity of the hashtable
+     * @param maxLoadFactor the maximum ratio of keys to capacity, or 1.0 to never grow
+     */
+    public DoubleHashing(int size, double maxLoadFactor) {
+        super(size, maxLoadFactor);
+    }
+
     /**
      * Computes the secondary hash function
      *
      * @param key the key to be hashed
+     * @param capacity the capacity of the table being probed
      * @return the result of the secondary hash function
      */
-    private int h2(Object key) {
-        return 1 + positiveMod(key.hashCode(), size - 2);
+    private int h2(Object key, int capacity) {
+        return 1 + positiveMod(mixedHashCode(key), capacity - 2);
     }
 
     /**
      * Probes the hashtable using the double hashing strategy
      *
      * @param key the key to be hashed
-     * @param i the probe number
+     * @param probeNum the probe number
+     * @param capacity the capacity of the table being probed
      * @return the index in the hashtable for the given key and probe number
      */
     @Override
-    public int hash(Object key, int probeNum) {
-        return positiveMod(h1(key) + probeNum * h2(key), size);
+    public int hash(Object key, int probeNum, int capacity) {
+        return positiveMod(h1(key, capacity) + probeNum * h2(key, capacity), capacity);
     }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+/**
+ * The DoubleHashingMap class extends the OpenAddressingMap class and implements the
+ * double hashing strategy for open addressing
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * @author Jeremiah Robinson
+ */
+public class DoubleHashingMap<K, V> extends OpenAddressingMap<K, V> {
+
+    /**
+     * Constructs a new, empty DoubleHashingMap
+     */
+    public DoubleHashingMap() {
+        this(0);
+    }
+
+    /**
+     * Constructs a new, empty DoubleHashingMap that holds the given number of keys
+     * without growing
+     *
+     * @param expectedSize the number of keys the map should hold without growing
+     */
+    public DoubleHashingMap(int expectedSize) {
+        this(expectedSize, DEFAULT_MAX_LOAD_FACTOR, HashMixer.IDENTITY);
+    }
+
+    /**
+     * Constructs a new, empty DoubleHashingMap
+     *
+     * @param expectedSize the number of keys the map should hold without growing
+     * @param maxLoadFactor the maximum ratio of keys and tombstones to capacity
+     * @param mixer the mixer applied to each key's hashCode()
+     */
+    public DoubleHashingMap(int expectedSize, double maxLoadFactor, HashMixer mixer) {
+        super(expectedSize, maxLoadFactor, mixer);
+    }
+
+    /**
+     * Steps through the arrays by the secondary hash function, the double hashing
+     * strategy. It scrambles the hash code with a different multiplier than the home
+     * slot, and the capacity is prime, so every step from 1 to capacity - 2 reaches
+     * every slot.
+     *
+     * @param hashCode the mixed hash code of the key
+     * @param capacity the capacity of the arrays being probed
+     * @return the result of the secondary hash function
+     */
+    @Override
+    protected int step(int hashCode, int capacity) {
+        return 1 + reduce(hashCode * 0x85ebca6b, capacity - 2);
+    }
+}
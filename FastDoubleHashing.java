@@ -0,0 +1,51 @@
+/**
+ * The FastDoubleHashing class extends the FastIndexHashtable class and implements the
+ * double hashing strategy with a power-of-two or fast-range reduced capacity. The step
+ * comes from a second mix of the hash code, so it does not depend on the bits that
+ * picked the home slot. In FAST_RANGE mode the capacity should be prime, as the twin
+ * primes the tables grow through are, so that every step reaches every slot.
+ *
+ * @author Jeremiah Robinson
+ */
+public class FastDoubleHashing extends FastIndexHashtable {
+
+    /**
+     * Constructs a new FastDoubleHashing hashtable with a power-of-two capacity
+     *
+     * @param size the requested capacity, rounded up to a power of two
+     */
+    public FastDoubleHashing(int size) {
+        this(size, 1.0, Reduction.MASK);
+    }
+
+    /**
+     * Constructs a new FastDoubleHashing hashtable that grows once it would exceed the
+     * given load factor
+     *
+     * @param size the requested capacity, rounded up to a power of two in MASK mode
+     * @param maxLoadFactor the maximum ratio of keys to capacity, or 1.0 to never grow
+     * @param reduction how hash codes are reduced to slots
+     */
+    public FastDoubleHashing(int size, double maxLoadFactor, Reduction reduction) {
+        super(size, maxLoadFactor, reduction);
+    }
+
+    /**
+     * Computes the step from a Fibonacci remix of the hash code. With a power-of-two
+     * capacity the step is forced odd, which makes it coprime with the capacity. In
+     * FAST_RANGE mode the capacity is a prime, so any step from 1 to capacity - 1 works.
+     *
+     * @param hashCode the mixed hash code of the key
+     * @param capacity the capacity of the table
+     * @return the step, from 1 to capacity - 1
+     */
+    @Override
+    protected int step(int hashCode, int capacity) {
+        int h = hashCode * 0x9e3779b9;
+        h ^= h >>> 15;
+        if (reduction == Reduction.MASK) {
+            return (h | 1) & (capacity - 1);
+        }
+        return 1 + (int) (((h & 0xffffffffL) * (capacity - 1)) >>> 32);
+    }
+}
@@ -0,0 +1,331 @@
+/**
+ * The FastIndexHashtable class is an abstract hash table with open addressing that
+ * reduces hash codes to slots without an integer division. In MASK mode the capacity is
+ * rounded up to a power of two and a slot is the low bits of the hash code. In FAST_RANGE
+ * mode the capacity is kept as given and a slot is the high half of the hash code
+ * multiplied by the capacity (Lemire's multiply-shift range reduction).
+ *
+ * Insert and search compute a key's mixed hash code, home slot and step once and then
+ * advance by the step, wrapping with a compare and subtract, so no probe calls hashCode()
+ * or divides. Both reductions use the hash code's bits unevenly (MASK the low ones,
+ * FAST_RANGE the high ones), so keys with patterned hash codes should be paired with a
+ * HashMixer such as murmur3.
+ *
+ * @author Jeremiah Robinson
+ */
+public abstract class FastIndexHashtable extends Hashtable {
+
+    /**
+     * How a hash code is reduced to a slot
+     */
+    public enum Reduction {
+        /** Power-of-two capacity, slot = hash code & (capacity - 1) */
+        MASK,
+        /** Any capacity, slot = (unsigned hash code * capacity) >>> 32 */
+        FAST_RANGE
+    }
+
+    /** The largest power-of-two capacity an int can hold */
+    static final int MAX_MASK_CAPACITY = 1 << 30;
+
+    protected final Reduction reduction;
+
+    /**
+     * Constructs a new FastIndexHashtable
+     *
+     * @param size the requested capacity, rounded up to a power of two in MASK mode
+     * @param maxLoadFactor the maximum ratio of keys to capacity, or 1.0 to never grow
+     * @param reduction how hash codes are reduced to slots
+     */
+    public FastIndexHashtable(int size, double maxLoadFactor, Reduction reduction) {
+        super(capacityFor(size, reduction), maxLoadFactor);
+        this.reduction = reduction;
+    }
+
+    /**
+     * Returns the capacity a table is built with for a requested capacity
+     *
+     * @param size the requested capacity
+     * @param reduction how hash codes are reduced to slots
+     * @return the smallest power of two at least size in MASK mode, otherwise size
+     * @throws IllegalArgumentException if size is more than MAX_MASK_CAPACITY in MASK mode
+     */
+    protected static int capacityFor(int size, Reduction reduction) {
+        if (reduction == Reduction.MASK && size > MAX_MASK_CAPACITY) {
+            throw new IllegalArgumentException("A power-of-two table cannot have more than " + MAX_MASK_CAPACITY
+                    + " slots: " + size);
+        }
+        if (reduction == Reduction.MASK && Integer.bitCount(size) != 1) {
+            return Integer.highestOneBit(size) << 1;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the capacity this table grows to: twice the capacity in MASK mode, and the
+     * next twin prime in FAST_RANGE mode so that every double hashing step stays coprime
+     * with the capacity
+     *
+     * @return the new capacity
+     * @throws IllegalStateException if a MASK table is already at MAX_MASK_CAPACITY
+     */
+    @Override
+    protected int grownCapacity() {
+        if (reduction != Reduction.MASK) {
+            return nextCapacity(size);
+        }
+        if (size >= MAX_MASK_CAPACITY) {
+            throw new IllegalStateException("A power-of-two table cannot grow past " + MAX_MASK_CAPACITY + " slots");
+        }
+        return size * GROWTH_FACTOR;
+    }
+
+    /**
+     * Reduces a hash code to a slot of a table of the given capacity
+     *
+     * @param hashCode the mixed hash code of the key
+     * @param capacity the capacity of the table
+     * @return the home slot of the key
+     */
+    protected int reduce(int hashCode, int capacity) {
+        if (reduction == Reduction.MASK) {
+            return hashCode & (capacity - 1);
+        }
+        return (int) (((hashCode & 0xffffffffL) * capacity) >>> 32);
+    }
+
+    /**
+     * Returns the distance between consecutive probes of a key. Every slot of the table
+     * must be reachable with it, so it has to be coprime with the capacity.
+     *
+     * @param hashCode the mixed hash code of the key
+     * @param capacity the capacity of the table
+     * @return the step, from 1 to capacity - 1
+     */
+    protected abstract int step(int hashCode, int capacity);
+
+    /**
+     * Computes the slot of the given probe of a key. Insert and search step through the
+     * same sequence without calling this; it is used when rehashing.
+     *
+     * @param key the key to be hashed
+     * @param probeNum the probe number
+     * @param capacity the capacity of the table being probed
+     * @return the index in a table of that capacity for the given key and probe number
+     */
+    @Override
+    public int hash(Object key, int probeNum, int capacity) {
+        int hashCode = mixedHashCode(key);
+        return (int) ((reduce(hashCode, capacity) + (long) probeNum * step(hashCode, capacity)) % capacity);
+    }
+
+    /**
+     * Inserts the specified key into the hashtable
+     *
+     * @param key the key to be inserted
+     * @return the number of probes required to insert the key, or -1 if the key is a duplicate or the table is full
+     */
+    @Override
+    public int insert(Object key) {
+        int hashCode = mixedHashCode(key);
+        return insert(key, reduce(hashCode, size), step(hashCode, size), null);
+    }
+
+    /**
+     * Inserts the specified key into the hashtable from its precomputed home slot and step
+     *
+     * @param key the key to be inserted
+     * @param index the home slot of the key in the current table array
+     * @param step the step of the key in the current table array
+     * @param home the entry read from the home slot of the current table array, or null to read it now
+     * @return the number of probes required to insert the key, or -1 if the key is a duplicate or the table is full
+     */
+    private int insert(Object key, int index, int step, HashObject home) {
+        if (oldTable != null) {
+            migrate(migrationStep);
+        }
+
+        for (int i = 0; i < size; i++) {
+            HashObject obj = i == 0 && home != null ? home : table[index];
+            if (obj == null) {
+                HashObject old = oldTable != null ? findInOldTable(key) : null;
+                if (old != null) {
+                    old.incrementFrequencyCount();
+                    recordFrequency(old);
+                    duplicateCount++;
+                    recordInsert(i + 1, i);
+                    return -1; // Indicate duplicate
+                }
+                if (numElements + 1 > maxLoadFactor * size) {
+                    grow();
+                    return insert(key);
+                }
+                obj = new HashObject(key);
+                obj.setProbeCount(i + 1);
+                table[index] = obj;
+                numElements++;
+                insertionCount += i + 1;
+                recordInsert(i + 1, i);
+                recordFrequency(obj);
+                return i + 1;
+            } else if (obj.getKey().equals(key)) {
+                obj.incrementFrequencyCount();
+                recordFrequency(obj);
+                duplicateCount++;
+                recordInsert(i + 1, i + 1);
+                return -1; // Indicate duplicate
+            }
+            index += step;
+            if (index >= size) {
+                index -= size;
+            }
+        }
+
+        recordInsert(size, size);
+        System.out.println("Table is full, could not insert key: " + key);
+        return -1; // Table is full
+    }
+
+    /**
+     * Inserts the specified keys in order, with the same results and statistics as
+     * calling insert() for each of them. The hash codes, home slots and steps of each
+     * batch of keys are computed and the home slots read before any of the keys is
+     * inserted.
+     *
+     * @param keys the keys to be inserted
+     * @return for each key, the number of probes required to insert it, or -1 if it was a duplicate or the table was full
+     */
+    @Override
+    public int[] insertAll(Object[] keys) {
+        int[] results = new int[keys.length];
+        int[] indexes = new int[PROBE_BATCH];
+        int[] steps = new int[PROBE_BATCH];
+        HashObject[] homes = new HashObject[PROBE_BATCH];
+        for (int start = 0; start < keys.length; start += PROBE_BATCH) {
+            int end = Math.min(keys.length, start + PROBE_BATCH);
+            HashObject[] homeTable = table;
+            int capacity = size;
+            for (int i = start; i < end; i++) {
+                int hashCode = mixedHashCode(keys[i]);
+                indexes[i - start] = reduce(hashCode, capacity);
+                steps[i - start] = step(hashCode, capacity);
+                homes[i - start] = homeTable[indexes[i - start]];
+            }
+            for (int i = start; i < end; i++) {
+                if (table == homeTable) {
+                    results[i] = insert(keys[i], indexes[i - start], steps[i - start], homes[i - start]);
+                } else {
+                    // The batch made the table grow, so the rest of it is hashed again
+                    results[i] = insert(keys[i]);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Searches for the specified key in the hashtable
+     *
+     * @param key the key to be searched for
+     * @return the number of probes required to find the key, or -1 if the key is not found
+     */
+    @Override
+    public int search(Object key) {
+        if (oldTable != null) {
+            return super.search(key);
+        }
+        if (filterRejects(key)) {
+            return -1; // Key not found
+        }
+
+        int hashCode = mixedHashCode(key);
+        int index = reduce(hashCode, size);
+        int step = step(hashCode, size);
+        for (int i = 0; i < size; i++) {
+            HashObject obj = table[index];
+            if (obj == null) {
+                recordSearch(i + 1, i, false);
+                return -1; // Key not found
+            } else if (obj.getKey().equals(key)) {
+                recordSearch(i + 1, i + 1, true);
+                return i + 1;
+            }
+            index += step;
+            if (index >= size) {
+                index -= size;
+            }
+        }
+        recordSearch(size, size, false);
+        return -1;
+    }
+
+    /**
+     * Searches for each of the specified keys, with the same results and statistics as
+     * calling search() for each of them. PROBE_BATCH keys are in flight at a time, each
+     * with its slot and step: every round reads the next slot of each unresolved key,
+     * then the entries in those slots, before comparing any of them, so the cache misses
+     * of the batch overlap. Keys the Bloom filter turns away never join the batch.
+     *
+     * @param keys the keys to be searched for
+     * @return for each key, the number of probes required to find it, or -1 if it was not found
+     */
+    @Override
+    public int[] searchAll(Object[] keys) {
+        if (oldTable != null) {
+            return searchEach(keys);
+        }
+        int[] results = new int[keys.length];
+        int[] pending = new int[PROBE_BATCH];
+        int[] indexes = new int[PROBE_BATCH];
+        int[] steps = new int[PROBE_BATCH];
+        int[] probes = new int[PROBE_BATCH];
+        HashObject[] slots = new HashObject[PROBE_BATCH];
+        Object[] storedKeys = new Object[PROBE_BATCH];
+        for (int start = 0; start < keys.length; start += PROBE_BATCH) {
+            int active = 0;
+            for (int j = 0; j < Math.min(PROBE_BATCH, keys.length - start); j++) {
+                if (filterRejects(keys[start + j])) {
+                    results[start + j] = -1;
+                    continue;
+                }
+                int hashCode = mixedHashCode(keys[start + j]);
+                pending[active++] = j;
+                indexes[j] = reduce(hashCode, size);
+                steps[j] = step(hashCode, size);
+                probes[j] = 0;
+            }
+            while (active > 0) {
+                for (int a = 0; a < active; a++) {
+                    slots[a] = table[indexes[pending[a]]];
+                }
+                for (int a = 0; a < active; a++) {
+                    storedKeys[a] = slots[a] == null ? null : slots[a].getKey();
+                }
+                int unresolved = 0;
+                for (int a = 0; a < active; a++) {
+                    int j = pending[a];
+                    HashObject obj = slots[a];
+                    int i = probes[j]++;
+                    if (obj == null) {
+                        recordSearch(i + 1, i, false);
+                        results[start + j] = -1;
+                    } else if (storedKeys[a].equals(keys[start + j])) {
+                        recordSearch(i + 1, i + 1, true);
+                        results[start + j] = i + 1;
+                    } else if (i + 1 == size) {
+                        recordSearch(size, size, false);
+                        results[start + j] = -1;
+                    } else {
+                        indexes[j] += steps[j];
+                        if (indexes[j] >= size) {
+                            indexes[j] -= size;
+                        }
+                        pending[unresolved++] = j;
+                    }
+                }
+                active = unresolved;
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * The FastLinearProbing class extends the FastIndexHashtable class and implements the
+ * linear probing strategy with a power-of-two or fast-range reduced capacity
+ *
+ * @author Jeremiah Robinson
+ */
+public class FastLinearProbing extends FastIndexHashtable {
+
+    /**
+     * Constructs a new FastLinearProbing hashtable with a power-of-two capacity
+     *
+     * @param size the requested capacity, rounded up to a power of two
+     */
+    public FastLinearProbing(int size) {
+        this(size, 1.0, Reduction.MASK);
+    }
+
+    /**
+     * Constructs a new FastLinearProbing hashtable that grows once it would exceed the
+     * given load factor
+     *
+     * @param size the requested capacity, rounded up to a power of two in MASK mode
+     * @param maxLoadFactor the maximum ratio of keys to capacity, or 1.0 to never grow
+     * @param reduction how hash codes are reduced to slots
+     */
+    public FastLinearProbing(int size, double maxLoadFactor, Reduction reduction) {
+        super(size, maxLoadFactor, reduction);
+    }
+
+    /**
+     * Linear probing always moves on to the next slot
+     *
+     * @param hashCode the mixed hash code of the key
+     * @param capacity the capacity of the table
+     * @return 1
+     */
+    @Override
+    protected int step(int hashCode, int capacity) {
+        return 1;
+    }
+}
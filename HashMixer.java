@@ -0,0 +1,145 @@
+import java.security.SecureRandom;
+
+/**
+ * The HashMixer class is an abstract class for the function a hash table applies to a
+ * key's hashCode() before reducing it to a slot. Keys whose hash codes follow a pattern,
+ * such as dates one second apart, fill consecutive or evenly spaced slots when their hash
+ * codes are used as is, which builds long clusters. A mixer that spreads every input bit
+ * over the whole word breaks the pattern up.
+ *
+ * IDENTITY leaves hash codes unchanged and is what every table uses unless told otherwise.
+ *
+ * @author Jeremiah Robinson
+ */
+public abstract class HashMixer {
+    /** Uses the hash code as is */
+    public static final HashMixer IDENTITY = new IdentityMixer();
+    /** The 32-bit finalizer of MurmurHash3, which makes every output bit depend on every input bit */
+    public static final HashMixer MURMUR3 = new Murmur3Mixer(0);
+    /** Fibonacci hashing: a multiply by 2^32 divided by the golden ratio, folding the high bits down */
+    public static final HashMixer FIBONACCI = new FibonacciMixer();
+
+    /**
+     * Mixes the bits of a hash code
+     *
+     * @param hashCode the hash code of the key
+     * @return the mixed hash code
+     */
+    public abstract int mix(int hashCode);
+
+    /**
+     * Returns the name of this mixer as accepted by forName()
+     *
+     * @return the name of the mixer
+     */
+    public abstract String getName();
+
+    /**
+     * Returns a MurmurHash3 finalizer keyed with the given seed, so that an adversary who
+     * does not know the seed cannot choose keys that collide
+     *
+     * @param seed the seed
+     * @return the seeded mixer
+     */
+    public static HashMixer seeded(int seed) {
+        return new Murmur3Mixer(seed);
+    }
+
+    /**
+     * Returns the mixer with the given name: identity, murmur3, fibonacci, seeded (with
+     * a random seed) or seeded:<seed>
+     *
+     * @param name the name of the mixer
+     * @return the mixer, or null if the name is unknown
+     */
+    public static HashMixer forName(String name) {
+        switch (name) {
+            case "identity":
+                return IDENTITY;
+            case "murmur3":
+                return MURMUR3;
+            case "fibonacci":
+                return FIBONACCI;
+            case "seeded":
+                return seeded(new SecureRandom().nextInt());
+            default:
+                if (name.startsWith("seeded:")) {
+                    try {
+                        return seeded(Integer.parseInt(name.substring("seeded:".length())));
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                }
+                return null;
+        }
+    }
+
+    /**
+     * Returns the name of this mixer
+     *
+     * @return the name of the mixer
+     */
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+    /**
+     * Leaves hash codes unchanged
+     */
+    private static class IdentityMixer extends HashMixer {
+        @Override
+        public int mix(int hashCode) {
+            return hashCode;
+        }
+
+        @Override
+        public String getName() {
+            return "identity";
+        }
+    }
+
+    /**
+     * The MurmurHash3 fmix32 finalizer, applied after xor-ing in a seed
+     */
+    private static class Murmur3Mixer extends HashMixer {
+        private final int seed;
+
+        Murmur3Mixer(int seed) {
+            this.seed = seed;
+        }
+
+        @Override
+        public int mix(int hashCode) {
+            int h = hashCode ^ seed;
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h;
+        }
+
+        @Override
+        public String getName() {
+            return seed == 0 ? "murmur3" : "seeded:" + seed;
+        }
+    }
+
+    /**
+     * Multiplies by the golden ratio constant, whose high bits are well mixed, and folds
+     * them into the low bits that the modulus keeps
+     */
+    private static class FibonacciMixer extends HashMixer {
+        @Override
+        public int mix(int hashCode) {
+            int h = hashCode * 0x9e3779b9;
+            return h ^ (h >>> 16);
+        }
+
+        @Override
+        public String getName() {
+            return "fibonacci";
+        }
+    }
+}
@@ -1,3 +1,6 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 /**
  * The HashObject class represents an object stored in a hash table.
  * It contains the key, frequency count, and probe count.
@@ -11,6 +14,15 @@ public class HashObject {
     private int frequencyCount;
     private int probeCount;
 
+    private static final VarHandle FREQUENCY_COUNT;
+    static {
+        try {
+            FREQUENCY_COUNT = MethodHandles.lookup().findVarHandle(HashObject.class, "frequencyCount", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     /**
      * Constructs a new HashObject with the specified key
      *
@@ -22,6 +34,20 @@ public class HashObject {
         this.probeCount = 0;
     }
 
+    /**
+     * Constructs a new HashObject with the specified key and counts, for restoring
+     * an entry that was saved earlier
+     *
+     * @param key the key of the hash object
+     * @param frequencyCount the number of times the key was inserted
+     * @param probeCount the number of probes it took to insert the key
+     */
+    public HashObject(Object key, int frequencyCount, int probeCount) {
+        this.key = key;
+        this.frequencyCount = frequencyCount;
+        this.probeCount = probeCount;
+    }
+
     /**
      * Returns the key of this hash object
      *
@@ -38,6 +64,14 @@ public class HashObject {
         frequencyCount++;
     }
 
+    /**
+     * Atomically increments the frequency count of this hash object, for tables
+     * that are updated by several threads at once
+     */
+    public void incrementFrequencyCountAtomically() {
+        FREQUENCY_COUNT.getAndAdd(this, 1);
+    }
+
     /**
      * Returns the frequency count of this hash object
      *
@@ -1,5 +1,7 @@
 import java.io.FileNotFoundException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The Hashtable class is an abstract class that provides the basic structure and functionality
@@ -8,17 +10,328 @@ import java.io.PrintWriter;
  * @author Jeremiah Robinson
  */
 public abstract class Hashtable {
+    /** Factor the capacity is multiplied by, before rounding up to a twin prime, when the table grows */
+    protected static final int GROWTH_FACTOR = 2;
+    /** Number of keys whose probe sequences insertAll() and searchAll() step through together */
+    protected static final int PROBE_BATCH = 16;
+
     protected HashObject[] table;
     protected int size;
+    protected int numElements;
+    protected int insertionCount;
+    protected int duplicateCount;
+    protected double maxLoadFactor;
+    protected HashObject[] oldTable;
+    protected int oldSize;
+    protected int migrationIndex;
+    protected int migrationStep;
+    protected ProbeStatistics statistics;
+    protected HeavyHitters heavyHitters;
+    protected BloomFilter bloomFilter;
+    protected HashMixer mixer = HashMixer.IDENTITY;
 
     /**
-     * Constructs a new Hashtable with the specified capacity
+     * Constructs a new Hashtable with the specified capacity. The table never grows.
      *
      * @param size the capacity of the hashtable
      */
     public Hashtable(int size) {
+        this(size, 1.0);
+    }
+
+    /**
+     * Constructs a new Hashtable with the specified capacity that grows once inserting
+     * a new key would push it past the given load factor
+     *
+     * @param size the capacity of the hashtable
+     * @param maxLoadFactor the maximum ratio of keys to capacity, or 1.0 to never grow
+     * @throws IllegalArgumentException if maxLoadFactor is not in (0, 1]
+     */
+    public Hashtable(int size, double maxLoadFactor) {
         this.size = size;
         this.table = new HashObject[size];
+        setMaxLoadFactor(maxLoadFactor);
+    }
+
+    /**
+     * Sets the maximum load factor. Inserting a new key that would push the table past
+     * it grows the table to the next twin prime and rehashes every entry. A maximum
+     * load factor of 1.0 disables growth.
+     *
+     * @param maxLoadFactor the maximum ratio of keys to capacity
+     * @throws IllegalArgumentException if maxLoadFactor is not in (0, 1]
+     */
+    public void setMaxLoadFactor(double maxLoadFactor) {
+        if (!(maxLoadFactor > 0.0 && maxLoadFactor <= 1.0)) {
+            throw new IllegalArgumentException("Max load factor must be in (0, 1]: " + maxLoadFactor);
+        }
+        this.maxLoadFactor = maxLoadFactor;
+    }
+
+    /**
+     * Switches growth to incremental resizing. Instead of rehashing every entry on the
+     * insert that triggers growth, the old table is kept alongside the new one and at
+     * most the given number of old slots are moved on each insert and search. Lookups
+     * check both tables until the move is complete.
+     *
+     * @param slotsPerOperation the number of old slots to move per operation, or 0 to
+     *                          rehash everything at once
+     * @throws IllegalArgumentException if slotsPerOperation is negative
+     */
+    public void setIncrementalResize(int slotsPerOperation) {
+        if (slotsPerOperation < 0) {
+            throw new IllegalArgumentException("Slots per operation must not be negative: " + slotsPerOperation);
+        }
+        this.migrationStep = slotsPerOperation;
+    }
+
+    /**
+     * Returns whether an incremental resize is still moving entries out of the old table
+     *
+     * @return true if the old table is still in use
+     */
+    public boolean isResizing() {
+        return oldTable != null;
+    }
+
+    /**
+     * Sets the function applied to every key's hashCode() before it is reduced to a slot.
+     * Tables use HashMixer.IDENTITY unless told otherwise.
+     *
+     * @param mixer the hash mixer
+     * @throws IllegalStateException if the table already holds keys
+     */
+    public void setHashMixer(HashMixer mixer) {
+        if (getNumElements() > 0 || oldTable != null) {
+            throw new IllegalStateException("The hash mixer can only be changed while the table is empty");
+        }
+        this.mixer = mixer;
+    }
+
+    /**
+     * Returns the function applied to every key's hashCode()
+     *
+     * @return the hash mixer
+     */
+    public HashMixer getHashMixer() {
+        return mixer;
+    }
+
+    /**
+     * Starts recording probe lengths and key comparisons of every later insert and search
+     */
+    public void enableStatistics() {
+        if (statistics == null) {
+            statistics = new ProbeStatistics();
+        }
+    }
+
+    /**
+     * Returns the statistics recorded since enableStatistics() was called
+     *
+     * @return the statistics, or null if they are not enabled
+     */
+    public ProbeStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Starts keeping the k most frequent keys up to date as later inserts bump their
+     * frequency counts, so they can be read without scanning the table. Keys inserted
+     * before this call are only counted from their next insert.
+     *
+     * @param k the number of keys to keep
+     * @throws IllegalArgumentException if k is less than 1
+     */
+    public void enableHeavyHitters(int k) {
+        if (heavyHitters == null) {
+            heavyHitters = new HeavyHitters(k);
+        }
+    }
+
+    /**
+     * Returns the most frequent keys kept since enableHeavyHitters() was called
+     *
+     * @return the heavy hitters, or null if they are not enabled
+     */
+    public HeavyHitters getHeavyHitters() {
+        return heavyHitters;
+    }
+
+    /**
+     * Puts a Bloom filter in front of every later search, so that most searches for keys
+     * that are not in the table are answered without probing. Keys already in the table
+     * are added to it. The filter cannot forget keys, so keys deleted later still pass
+     * it, and holding more keys than it was sized for raises its false-positive rate.
+     *
+     * @param expectedKeys the number of keys the filter is sized for
+     * @param falsePositiveRate the fraction of absent keys it may let through, in (0, 1)
+     * @throws IllegalArgumentException if expectedKeys is less than 1 or falsePositiveRate is not in (0, 1)
+     */
+    public void enableBloomFilter(int expectedKeys, double falsePositiveRate) {
+        bloomFilter = new BloomFilter(expectedKeys, falsePositiveRate);
+        for (HashObject obj : getEntries()) {
+            bloomFilter.add(obj.getKey());
+        }
+    }
+
+    /**
+     * Returns the Bloom filter in front of searches
+     *
+     * @return the filter, or null if it is not enabled
+     */
+    public BloomFilter getBloomFilter() {
+        return bloomFilter;
+    }
+
+    /**
+     * Checks a key against the Bloom filter, if it is enabled, before a search probes.
+     * A search the filter answers is recorded as a failed search of no probes.
+     *
+     * @param key the key to be searched for
+     * @return true if the key is certainly not in the table
+     */
+    protected boolean filterRejects(Object key) {
+        if (bloomFilter == null || bloomFilter.mightContain(key)) {
+            return false;
+        }
+        if (statistics != null) {
+            statistics.recordSearch(0, 0, false);
+        }
+        return true;
+    }
+
+    /**
+     * Records an entry that was just inserted or found as a duplicate: a new key is
+     * added to the Bloom filter, and the entry is offered to the heavy hitters, if they
+     * are enabled
+     *
+     * @param obj the entry that was inserted or found as a duplicate
+     */
+    protected void recordFrequency(HashObject obj) {
+        if (bloomFilter != null && obj.getFrequencyCount() == 1) {
+            bloomFilter.add(obj.getKey());
+        }
+        if (heavyHitters != null) {
+            heavyHitters.offer(obj.getKey(), obj.getFrequencyCount());
+        }
+    }
+
+    /**
+     * Records an entry that was just deleted: its key leaves the heavy hitters, and the
+     * Bloom filter, which cannot remove it, counts it as a deleted key it still lets through
+     *
+     * @param obj the entry that was deleted
+     */
+    protected void recordDeletion(HashObject obj) {
+        if (bloomFilter != null) {
+            bloomFilter.recordDeletion();
+        }
+        if (heavyHitters != null) {
+            heavyHitters.remove(obj.getKey());
+        }
+    }
+
+    /**
+     * Records an insert, if statistics are enabled
+     *
+     * @param probes the number of slots the insert looked at
+     * @param keyComparisons the number of stored keys it compared the key with
+     */
+    protected void recordInsert(int probes, int keyComparisons) {
+        if (statistics != null) {
+            statistics.recordInsert(probes, keyComparisons);
+        }
+    }
+
+    /**
+     * Records a search that probed the table, if statistics are enabled. A failed search
+     * the Bloom filter let through is counted as a false positive of the filter.
+     *
+     * @param probes the number of slots the search looked at
+     * @param keyComparisons the number of stored keys it compared the key with
+     * @param found whether the key was found
+     */
+    protected void recordSearch(int probes, int keyComparisons, boolean found) {
+        if (bloomFilter != null && !found) {
+            bloomFilter.recordFalsePositive();
+        }
+        if (statistics != null) {
+            statistics.recordSearch(probes, keyComparisons, found);
+        }
+    }
+
+    /**
+     * Returns the histogram of the lengths of the primary clusters of the table, the
+     * runs of occupied slots between two empty ones. A run that wraps around the end
+     * of the table counts as one cluster. Under linear probing a key that hashes into a
+     * cluster probes to its end, so long clusters are where long probe sequences come from.
+     *
+     * @return the cluster lengths
+     */
+    public ProbeHistogram getClusterLengths() {
+        ProbeHistogram clusters = new ProbeHistogram();
+        int firstEmpty = 0;
+        while (firstEmpty < size && table[firstEmpty] != null) {
+            firstEmpty++;
+        }
+        if (firstEmpty == size) {
+            if (size > 0) {
+                clusters.record(size);
+            }
+            return clusters;
+        }
+
+        int run = 0;
+        for (int n = 1; n <= size; n++) {
+            int index = firstEmpty + n < size ? firstEmpty + n : firstEmpty + n - size;
+            if (table[index] != null) {
+                run++;
+            } else if (run > 0) {
+                clusters.record(run);
+                run = 0;
+            }
+        }
+        return clusters;
+    }
+
+    /**
+     * Returns the current capacity of the hashtable
+     *
+     * @return the current capacity
+     */
+    public int getCapacity() {
+        return size;
+    }
+
+    /**
+     * Returns the number of distinct keys stored in the hashtable
+     *
+     * @return the number of distinct keys
+     */
+    public int getNumElements() {
+        return numElements;
+    }
+
+    /**
+     * Returns every entry in the hashtable, including those not yet moved out of the old
+     * table by an incremental resize
+     *
+     * @return the entries, in no particular order
+     */
+    public List<HashObject> getEntries() {
+        List<HashObject> entries = new ArrayList<>(numElements);
+        for (HashObject obj : table) {
+            if (obj != null) {
+                entries.add(obj);
+            }
+        }
+        for (int i = migrationIndex; oldTable != null && i < oldSize; i++) {
+            if (oldTable[i] != null) {
+                entries.add(oldTable[i]);
+            }
+        }
+        return entries;
     }
 
     /**
@@ -28,7 +341,20 @@ public abstract class Hashtable {
      * @param probeNum the probe number
      * @return the index in the hashtable for the given key and probe number
      */
-    public abstract int hash(Object key, int probeNum);
+    public int hash(Object key, int probeNum) {
+        return hash(key, probeNum, size);
+    }
+
+    /**
+     * Computes the hash value for the given key and probe number in a table of the
+     * given capacity
+     *
+     * @param key the key to be hashed
+     * @param probeNum the probe number
+     * @param capacity the capacity of the table being probed
+     * @return the index in a table of that capacity for the given key and probe number
+     */
+    public abstract int hash(Object key, int probeNum, int capacity);
 
     /**
      * Computes the primary hash function
@@ -37,7 +363,28 @@ public abstract class Hashtable {
      * @return the result of the primary hash function
      */
     protected int h1(Object key) {
-        return positiveMod(key.hashCode(), size);
+        return h1(key, size);
+    }
+
+    /**
+     * Computes the primary hash function for a table of the given capacity
+     *
+     * @param key the key to be hashed
+     * @param capacity the capacity of the table being probed
+     * @return the result of the primary hash function
+     */
+    protected int h1(Object key, int capacity) {
+        return positiveMod(mixedHashCode(key), capacity);
+    }
+
+    /**
+     * Returns the hash code of a key after the table's hash mixer has been applied
+     *
+     * @param key the key
+     * @return the mixed hash code
+     */
+    protected int mixedHashCode(Object key) {
+        return mixer.mix(key.hashCode());
     }
 
     /**
@@ -47,25 +394,211 @@ public abstract class Hashtable {
      * @return the number of probes required to insert the key, or -1 if the key is a duplicate or the table is full
      */
     public int insert(Object key) {
+        return insert(key, null);
+    }
+
+    /**
+     * Inserts the specified key into the hashtable, reusing the entry that insertAll()
+     * read from its home slot ahead of time. Entries never leave the table array, so a
+     * home slot that was occupied then still holds the same entry.
+     *
+     * @param key the key to be inserted
+     * @param home the entry read from the key's home slot of the current table array, or null to read it now
+     * @return the number of probes required to insert the key, or -1 if the key is a duplicate or the table is full
+     */
+    protected int insert(Object key, HashObject home) {
         int probeCount = 0;
+        if (oldTable != null) {
+            migrate(migrationStep);
+        }
     
         for (int i = 0; i < size; i++) {
             int index = hash(key, i);
-            if (table[index] == null) {
-                table[index] = new HashObject(key);
-                table[index].setProbeCount(probeCount + 1);
+            HashObject obj = i == 0 && home != null ? home : table[index];
+            if (obj == null) {
+                HashObject old = oldTable != null ? findInOldTable(key) : null;
+                if (old != null) {
+                    old.incrementFrequencyCount();
+                    recordFrequency(old);
+                    duplicateCount++;
+                    recordInsert(probeCount + 1, probeCount);
+                    return -1; // Indicate duplicate
+                }
+                if (numElements + 1 > maxLoadFactor * size) {
+                    grow();
+                    return insert(key);
+                }
+                obj = new HashObject(key);
+                obj.setProbeCount(probeCount + 1);
+                table[index] = obj;
+                numElements++;
+                insertionCount += probeCount + 1;
+                recordInsert(probeCount + 1, probeCount);
+                recordFrequency(obj);
                 return probeCount + 1;
-            } else if (table[index].getKey().equals(key)) {
-                table[index].incrementFrequencyCount();
+            } else if (obj.getKey().equals(key)) {
+                obj.incrementFrequencyCount();
+                recordFrequency(obj);
+                duplicateCount++;
+                recordInsert(probeCount + 1, probeCount + 1);
                 return -1; // Indicate duplicate
             }
             probeCount++;
         }
     
+        recordInsert(size, size);
         System.out.println("Table is full, could not insert key: " + key);
         return -1; // Table is full
     }
+
+    /**
+     * Inserts the specified keys in order, with the same results and statistics as
+     * calling insert() for each of them. The keys are taken PROBE_BATCH at a time: the
+     * home slots of the whole batch are read first, so that their cache misses overlap
+     * instead of each insert waiting on its own, and then the keys are inserted one by
+     * one from the entries already read.
+     *
+     * @param keys the keys to be inserted
+     * @return for each key, the number of probes required to insert it, or -1 if it was a duplicate or the table was full
+     */
+    public int[] insertAll(Object[] keys) {
+        int[] results = new int[keys.length];
+        HashObject[] homes = new HashObject[PROBE_BATCH];
+        for (int start = 0; start < keys.length; start += PROBE_BATCH) {
+            int end = Math.min(keys.length, start + PROBE_BATCH);
+            HashObject[] homeTable = table;
+            for (int i = start; i < end; i++) {
+                homes[i - start] = homeTable[hash(keys[i], 0)];
+            }
+            for (int i = start; i < end; i++) {
+                // A batch that made the table grow reads the rest of its home slots again
+                results[i] = insert(keys[i], table == homeTable ? homes[i - start] : null);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Inserts the specified keys one at a time with insert(), for tables whose inserts
+     * cannot reuse a home slot read ahead of time
+     *
+     * @param keys the keys to be inserted
+     * @return for each key, the result of insert()
+     */
+    protected final int[] insertEach(Object[] keys) {
+        int[] results = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            results[i] = insert(keys[i]);
+        }
+        return results;
+    }
     
+    /**
+     * Grows the table to grownCapacity(), by default the next twin prime at least
+     * GROWTH_FACTOR times the current capacity, and rehashes every entry with this
+     * table's probing strategy. Frequency counts are kept, probe counts are recomputed
+     * for the new capacity. With incremental resizing the entries are only moved as
+     * later operations call migrate().
+     */
+    protected void grow() {
+        finishMigration();
+        oldTable = table;
+        oldSize = size;
+        migrationIndex = 0;
+        size = grownCapacity();
+        table = new HashObject[size];
+        if (migrationStep == 0) {
+            finishMigration();
+        }
+    }
+
+    /**
+     * Returns the capacity this table grows to from its current capacity
+     *
+     * @return the next twin prime at least GROWTH_FACTOR times the capacity
+     */
+    protected int grownCapacity() {
+        return nextCapacity(size);
+    }
+
+    /**
+     * Returns the capacity a table grows to from the given capacity
+     *
+     * @param capacity the current capacity
+     * @return the next twin prime at least GROWTH_FACTOR times the capacity
+     */
+    protected static int nextCapacity(int capacity) {
+        return TwinPrimeGenerator.nextTwinPrimeAtLeast((int) Math.min((long) capacity * GROWTH_FACTOR, Integer.MAX_VALUE - 2));
+    }
+
+    /**
+     * Moves up to the given number of slots from the old table into the current one.
+     * The old table is left intact, so its probe sequences stay valid for lookups of
+     * the entries that have not been moved yet.
+     *
+     * @param slots the maximum number of old slots to move
+     */
+    protected void migrate(int slots) {
+        int end = (int) Math.min((long) migrationIndex + slots, oldSize);
+        for (; migrationIndex < end; migrationIndex++) {
+            HashObject obj = oldTable[migrationIndex];
+            if (obj != null) {
+                int oldProbeCount = obj.getProbeCount();
+                int probeCount = place(obj);
+                insertionCount += probeCount - oldProbeCount;
+            }
+        }
+        if (migrationIndex == oldSize) {
+            oldTable = null;
+        }
+    }
+
+    /**
+     * Moves every remaining entry out of the old table, if a resize is in progress
+     */
+    protected void finishMigration() {
+        if (oldTable != null) {
+            migrate(oldSize - migrationIndex);
+        }
+    }
+
+    /**
+     * Looks up a key among the entries of the old table that have not been moved yet
+     *
+     * @param key the key to be searched for
+     * @return the entry holding the key, or null if the old table does not have it
+     */
+    protected HashObject findInOldTable(Object key) {
+        for (int i = 0; i < oldSize; i++) {
+            HashObject obj = oldTable[hash(key, i, oldSize)];
+            if (obj == null) {
+                return null;
+            } else if (obj.getKey().equals(key)) {
+                return obj;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Places an entry that is known not to be in the table into the first empty
+     * slot of its probe sequence and records its probe count
+     *
+     * @param obj the entry to be placed
+     * @return the number of probes required to place the entry
+     */
+    protected int place(HashObject obj) {
+        for (int i = 0; i < size; i++) {
+            int index = hash(obj.getKey(), i);
+            if (table[index] == null) {
+                table[index] = obj;
+                obj.setProbeCount(i + 1);
+                return i + 1;
+            }
+        }
+        throw new IllegalStateException("No empty slot for key: " + obj.getKey());
+    }
+
     /**
      * Searches for the specified key in the hashtable
      *
@@ -73,15 +606,124 @@ public abstract class Hashtable {
      * @return the number of probes required to find the key, or -1 if the key is not found
      */
     public int search(Object key) {
+        if (oldTable != null) {
+            migrate(migrationStep);
+        }
+        if (filterRejects(key)) {
+            return -1; // Key not found
+        }
+        int probes = 0;
+        int keyComparisons = 0;
         for (int i = 0; i < size; i++) {
             int index = hash(key, i);
+            probes++;
             if (table[index] == null) {
-                return -1; // Key not found
-            } else if (table[index].getKey().equals(key)) {
-                return i + 1;
+                break;
+            }
+            keyComparisons++;
+            if (table[index].getKey().equals(key)) {
+                recordSearch(probes, keyComparisons, true);
+                return probes;
+            }
+        }
+        if (oldTable != null) {
+            for (int i = 0; i < oldSize; i++) {
+                HashObject obj = oldTable[hash(key, i, oldSize)];
+                probes++;
+                if (obj == null) {
+                    break;
+                }
+                keyComparisons++;
+                if (obj.getKey().equals(key)) {
+                    recordSearch(probes, keyComparisons, true);
+                    return probes;
+                }
             }
         }
-        return -1;
+        recordSearch(probes, keyComparisons, false);
+        return -1; // Key not found
+    }
+
+    /**
+     * Searches for each of the specified keys, with the same results and statistics as
+     * calling search() for each of them. PROBE_BATCH keys are in flight at a time: every
+     * round reads the next slot of each unresolved key, then the entries in those slots,
+     * before comparing any of them, so the cache misses of the batch overlap. Keys the
+     * Bloom filter turns away never join the batch. While a resize is in progress every search
+     * moves part of the old table, so the keys are searched one at a time.
+     *
+     * @param keys the keys to be searched for
+     * @return for each key, the number of probes required to find it, or -1 if it was not found
+     */
+    public int[] searchAll(Object[] keys) {
+        if (oldTable != null) {
+            return searchEach(keys);
+        }
+        int[] results = new int[keys.length];
+        int[] pending = new int[PROBE_BATCH];
+        int[] probes = new int[PROBE_BATCH];
+        int[] keyComparisons = new int[PROBE_BATCH];
+        HashObject[] slots = new HashObject[PROBE_BATCH];
+        Object[] storedKeys = new Object[PROBE_BATCH];
+        for (int start = 0; start < keys.length; start += PROBE_BATCH) {
+            int active = 0;
+            for (int j = 0; j < Math.min(PROBE_BATCH, keys.length - start); j++) {
+                if (filterRejects(keys[start + j])) {
+                    results[start + j] = -1;
+                    continue;
+                }
+                pending[active++] = j;
+                probes[j] = 0;
+                keyComparisons[j] = 0;
+            }
+            while (active > 0) {
+                for (int a = 0; a < active; a++) {
+                    int j = pending[a];
+                    slots[a] = table[hash(keys[start + j], probes[j])];
+                }
+                for (int a = 0; a < active; a++) {
+                    storedKeys[a] = slots[a] == null ? null : slots[a].getKey();
+                }
+                int unresolved = 0;
+                for (int a = 0; a < active; a++) {
+                    int j = pending[a];
+                    HashObject obj = slots[a];
+                    probes[j]++;
+                    if (obj == null) {
+                        recordSearch(probes[j], keyComparisons[j], false);
+                        results[start + j] = -1;
+                        continue;
+                    }
+                    keyComparisons[j]++;
+                    if (storedKeys[a].equals(keys[start + j])) {
+                        recordSearch(probes[j], keyComparisons[j], true);
+                        results[start + j] = probes[j];
+                    } else if (probes[j] == size) {
+                        recordSearch(probes[j], keyComparisons[j], false);
+                        results[start + j] = -1;
+                    } else {
+                        pending[unresolved++] = j;
+                    }
+                }
+                active = unresolved;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Searches for the specified keys one at a time with search(), for tables whose
+     * searches do not follow a single probe sequence per key
+     *
+     * @param keys the keys to be searched for
+     * @return for each key, the result of search()
+     */
+    protected final int[] searchEach(Object[] keys) {
+        int[] results = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            results[i] = search(keys[i]);
+        }
+        return results;
     }
 
     /**
@@ -100,42 +742,55 @@ public abstract class Hashtable {
     }
 
     /**
-     * Returns the total number of duplicate keys in the hashtable
+     * Returns the total number of duplicate keys in the hashtable. The count is kept
+     * up to date by insert, so this does not walk the table.
      *
      * @return the total number of duplicate keys
      */
     public int getDuplicateCount() {
-        int duplicateCount = 0;
-        for (HashObject obj : table) {
-            if (obj != null && obj.getFrequencyCount() > 1) {
-                duplicateCount += obj.getFrequencyCount() - 1;
-            }
-        }
         return duplicateCount;
     }
 
     /**
-     * Returns the total number of insertions (probes) in the hashtable
+     * Returns the total number of insertions (probes) in the hashtable. The count is kept
+     * up to date by insert, so this does not walk the table.
      *
      * @return the total number of insertions
      */
     public int getInsertionCount() {
-        int insertionCount = 0;
+        return insertionCount;
+    }
+
+    /**
+     * Returns the largest probe count of any key in the hashtable. Unlike the running
+     * totals this walks the table.
+     *
+     * @return the largest probe count, or 0 if the table is empty
+     */
+    public int getMaxProbeCount() {
+        int maxProbeCount = 0;
         for (HashObject obj : table) {
             if (obj != null) {
-                insertionCount += obj.getProbeCount();
+                maxProbeCount = Math.max(maxProbeCount, obj.getProbeCount());
             }
         }
-        return insertionCount;
+        for (int i = migrationIndex; oldTable != null && i < oldSize; i++) {
+            if (oldTable[i] != null) {
+                maxProbeCount = Math.max(maxProbeCount, oldTable[i].getProbeCount());
+            }
+        }
+        return maxProbeCount;
     }
 
     /**
-     * Dumps the contents of the hashtable to the specified file
+     * Dumps the contents of the hashtable to the specified file. An incremental
+     * resize that is still in progress is finished first.
      *
      * @param fileName the name of the file to dump the contents to
      * @throws FileNotFoundException if the file cannot be created or opened
      */
     public void dumpToFile(String fileName) throws FileNotFoundException {
+        finishMigration();
         try (PrintWriter out = new PrintWriter(fileName)) {
             for (int i = 0; i < table.length; i++) {
                 if (table[i] != null) {
@@ -0,0 +1,255 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * The HashtableBenchmark class supports the JMH benchmarks in jmh/benchmarks. It builds
+ * their keys and tables, since a benchmark in a named package cannot use the classes of
+ * the default package directly, and it compares the CSV results JMH writes with those of
+ * an earlier run to spot regressions between versions.
+ *
+ * @author Jeremiah Robinson
+ */
+public class HashtableBenchmark {
+    /** Relative slowdown in score above which a result is reported as a regression */
+    private static final double REGRESSION_THRESHOLD = 0.10;
+
+    /**
+     * The score of one benchmark run, an average time per operation
+     */
+    private static class Score {
+        double score;
+        String unit;
+    }
+
+    /**
+     * Main method, compares a JMH results file with a baseline
+     *
+     * @param args Command line arguments. See printUsage() for details.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            printUsage();
+            System.exit(1);
+        }
+        compareWithBaseline(readScores(args[0]), args[1]);
+    }
+
+    /**
+     * Draws the keys for one benchmark from the deterministic generators HashtableExperiment
+     * sweeps with, so every run sees the same keys: enough to fill the strategy's table to
+     * the load factor, plus as many keys that will not be found as the source can supply.
+     * Called by the JMH benchmarks.
+     *
+     * @param strategy    The strategy as given on the command line
+     * @param capacity    The requested capacity of the table
+     * @param dataSource  The data source, 1 to 3
+     * @param loadFactor  The load factor to fill the table to
+     * @return            The key stream with duplicates, its distinct keys in insertion
+     *                    order and the missing keys, in that order
+     */
+    public static Object[][] buildKeys(String strategy, int capacity, int dataSource, double loadFactor) {
+        // MASK tables round the capacity up to a power of two, so the load is taken from the table
+        int tableSize = HashtableExperiment.buildHashtable(strategy, tableSize(capacity), 1.0).getCapacity();
+        int numObjects = (int) Math.ceil(loadFactor * tableSize);
+
+        HashtableExperiment.TestDataGenerator<?> generator =
+                HashtableExperiment.buildTestDataGenerator(dataSource, true);
+        List<Object> stream = new ArrayList<>();
+        Set<Object> present = new HashSet<>();
+        List<Object> presentInOrder = new ArrayList<>(numObjects);
+        while (presentInOrder.size() < numObjects) {
+            Object key = generator.getNext();
+            stream.add(key);
+            if (present.add(key)) {
+                presentInOrder.add(key);
+            }
+        }
+
+        List<Object> missing = new ArrayList<>(numObjects);
+        try {
+            while (missing.size() < numObjects) {
+                Object key = generator.getNext();
+                if (!present.contains(key)) {
+                    missing.add(key);
+                }
+            }
+        } catch (RuntimeException e) {
+            // The word list ran out, so fewer failed searches are timed
+        }
+        generator.close();
+        return new Object[][] {stream.toArray(), presentInOrder.toArray(), missing.toArray()};
+    }
+
+    /**
+     * Builds a table for a benchmark, with a Bloom filter sized for its distinct keys if
+     * one was asked for, and inserts the given keys. Called by the JMH benchmarks.
+     *
+     * @param strategy      The strategy as given on the command line
+     * @param capacity      The requested capacity of the table
+     * @param distinctKeys  The number of distinct keys the table will hold
+     * @param bloom         The false-positive rate of the Bloom filter, or 0 for none
+     * @param keys          The keys to insert, or an empty array for an empty table
+     * @return              The hash table
+     */
+    public static Hashtable buildTable(String strategy, int capacity, int distinctKeys, double bloom, Object[] keys) {
+        Hashtable table = HashtableExperiment.buildHashtable(strategy, tableSize(capacity), 1.0);
+        if (bloom > 0.0) {
+            table.enableBloomFilter(distinctKeys, bloom);
+        }
+        for (Object key : keys) {
+            table.insert(key);
+        }
+        return table;
+    }
+
+    /**
+     * Returns insert() of a table as a function. Called by the JMH benchmarks.
+     *
+     * @param table The hash table
+     * @return      The function
+     */
+    public static ToIntFunction<Object> inserter(Hashtable table) {
+        return table::insert;
+    }
+
+    /**
+     * Returns search() of a table as a function. Called by the JMH benchmarks.
+     *
+     * @param table The hash table
+     * @return      The function
+     */
+    public static ToIntFunction<Object> searcher(Hashtable table) {
+        return table::search;
+    }
+
+    /**
+     * Returns insertAll() of a table as a function. Called by the JMH benchmarks.
+     *
+     * @param table The hash table
+     * @return      The function
+     */
+    public static Function<Object[], int[]> batchInserter(Hashtable table) {
+        return table::insertAll;
+    }
+
+    /**
+     * Returns searchAll() of a table as a function. Called by the JMH benchmarks.
+     *
+     * @param table The hash table
+     * @return      The function
+     */
+    public static Function<Object[], int[]> batchSearcher(Hashtable table) {
+        return table::searchAll;
+    }
+
+    /**
+     * Returns the twin prime a requested capacity is rounded up to
+     *
+     * @param capacity  The requested capacity
+     * @return          The capacity to build tables with, which MASK tables round up further
+     */
+    private static int tableSize(int capacity) {
+        return TwinPrimeGenerator.nextTwinPrimeAtLeast(capacity);
+    }
+
+    /**
+     * Reads the scores from a CSV results file written by JMH with "-rf csv". Each run is
+     * identified by its benchmark method and the values of its parameters.
+     *
+     * @param fileName  The name of the CSV file
+     * @return          The scores by run, in the order JMH ran them
+     */
+    private static Map<String, Score> readScores(String fileName) {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        try (BufferedReader in = new BufferedReader(new FileReader(fileName))) {
+            String line = in.readLine();
+            List<String> header = line == null ? List.of() : splitCsv(line);
+            int scoreColumn = header.indexOf("Score");
+            int unitColumn = header.indexOf("Unit");
+            if (!header.contains("Benchmark") || scoreColumn == -1 || unitColumn == -1) {
+                throw new IOException("Not a JMH CSV results file: " + fileName);
+            }
+            while ((line = in.readLine()) != null) {
+                List<String> columns = splitCsv(line);
+                String benchmark = columns.get(header.indexOf("Benchmark"));
+                StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.') + 1));
+                for (int i = 0; i < header.size(); i++) {
+                    if (header.get(i).startsWith("Param: ")) {
+                        key.append(' ').append(header.get(i).substring(7)).append('=').append(columns.get(i));
+                    }
+                }
+                Score score = new Score();
+                score.score = Double.parseDouble(columns.get(scoreColumn));
+                score.unit = columns.get(unitColumn);
+                scores.put(key.toString(), score);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error: cannot read JMH results from " + fileName + ": " + e.getMessage());
+            throw new RuntimeException("Error: cannot read JMH results from " + fileName, e);
+        }
+        return scores;
+    }
+
+    /**
+     * Splits a line of JMH's CSV into its fields, dropping the quotes around strings.
+     * None of the fields JMH writes for these benchmarks contain a comma.
+     *
+     * @param line  The line
+     * @return      The fields
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        for (String field : line.split(",", -1)) {
+            boolean quoted = field.length() >= 2 && field.startsWith("\"") && field.endsWith("\"");
+            fields.add(quoted ? field.substring(1, field.length() - 1) : field);
+        }
+        return fields;
+    }
+
+    /**
+     * Compares the score of each run with the matching run of an earlier results file and
+     * reports the ones that got slower by more than REGRESSION_THRESHOLD
+     *
+     * @param scores    The scores of this run
+     * @param fileName  The name of the earlier CSV file
+     */
+    private static void compareWithBaseline(Map<String, Score> scores, String fileName) {
+        Map<String, Score> baseline = readScores(fileName);
+        int regressions = 0;
+        System.out.println("HashtableBenchmark: Comparing scores with " + fileName);
+        for (Map.Entry<String, Score> entry : scores.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null || before.score == 0 || !before.unit.equals(after.unit)) {
+                continue;
+            }
+            double change = (after.score - before.score) / before.score;
+            if (change > REGRESSION_THRESHOLD) {
+                regressions++;
+                System.out.println(String.format("\tREGRESSION %s: %.3f -> %.3f %s (%+.1f%%)",
+                        entry.getKey(), before.score, after.score, after.unit, change * 100));
+            }
+        }
+        System.out.println("HashtableBenchmark: " + regressions + " regression(s) above "
+                + (int) (REGRESSION_THRESHOLD * 100) + "%");
+    }
+
+    /**
+     * Print the usage message
+     */
+    private static void printUsage() {
+        System.out.println("Usage: java HashtableBenchmark <results> <baseline>");
+        System.out.println("       <results>:    CSV results file written by the JMH benchmarks, such as");
+        System.out.println("                       build/jmh-results.csv");
+        System.out.println("       <baseline>:   earlier CSV results file to report regressions against");
+    }
+}
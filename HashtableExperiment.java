@@ -1,8 +1,35 @@
-import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Random;
-import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
 
 /**
  * The HashtableExperiment class is a test driver for the Hashtable class, which 
@@ -11,6 +38,20 @@ import java.util.Scanner;
  * @author Jeremiah Robinson
  */
 public class HashtableExperiment {
+    /** Seed of the random numbers when every run must see the same keys */
+    static final long DETERMINISTIC_SEED = 321;
+    /** Start of the date sequence when every run must see the same keys (2025-01-01 UTC) */
+    static final long DETERMINISTIC_START = 1735689600000L;
+    /** Number of recently inserted keys that reader threads pick their searches from */
+    static final int RECENT_KEYS = 1 << 12;
+    /** Percentages of search hits, search misses, duplicate inserts and deletes in a workload */
+    static final int[] DEFAULT_WORKLOAD_MIX = {80, 10, 10, 0};
+    /** Names of the workload operations, in the order of their percentages */
+    static final String[] WORKLOAD_OPERATIONS = {"search hits", "search misses", "duplicate inserts", "deletes"};
+    /** Exponent of the Zipfian key distribution when none is given */
+    static final double DEFAULT_ZIPF_EXPONENT = 0.99;
+    /** Load factor past which a shard grows, since a shard can be handed more than its share of the keys */
+    static final double SHARD_MAX_LOAD = 0.999;
 
     /**
      * Inner class to store command line arguments
@@ -19,6 +60,135 @@ public class HashtableExperiment {
         int dataSource;
         double loadFactor;
         int debugLevel;
+        double maxLoadFactor = 1.0;
+        int incrementalSlots;
+        String[] strategies = {"linear", "double"};
+        int threads = 1;
+        int batchSize;
+        String snapshot;
+        int sweepWorkers;
+        String stats;
+        int topK;
+        int pipelineBatch;
+        int shards;
+        double bloomFalsePositiveRate;
+        int readers;
+        int workloadOps;
+        int[] workloadMix;
+        String keyDistribution;
+        double zipfExponent = DEFAULT_ZIPF_EXPONENT;
+        int sketchWidth;
+        int sketchDepth;
+        HashMixer[] mixers = {HashMixer.IDENTITY};
+        FastIndexHashtable.Reduction reduction;
+        int[] dataSources;
+        double[] loadFactors;
+        Set<String> options = new LinkedHashSet<>();
+        RunMode mode = RunMode.TABLES;
+    }
+
+    /**
+     * The kinds of run, each picked by an option of its own and accepting only the
+     * options it acts on. A run with none of the picking options runs the generic tables.
+     */
+    private enum RunMode {
+        SWEEP("--sweep", "--strategies", "--mixers", "--max-load", "--incremental", "--reduction", "--batch", "--stats"),
+        PRIMITIVE("--primitive"),
+        PARALLEL_ARRAYS("--parallel-arrays", "--pipeline"),
+        ARENA("--arena"),
+        SHARDS("--shards", "--strategies", "--mixers", "--max-load", "--incremental", "--reduction", "--pipeline"),
+        THREADS("--threads", "--strategies", "--mixers", "--pipeline"),
+        READERS("--readers", "--strategies", "--mixers", "--max-load", "--pipeline", "--workload", "--mix", "--keys",
+                "--top", "--sketch"),
+        TABLES(null, "--strategies", "--mixers", "--max-load", "--incremental", "--reduction", "--batch", "--stats",
+                "--pipeline", "--snapshot", "--bloom", "--workload", "--mix", "--keys", "--top", "--sketch");
+
+        /** The option that picks this kind of run, or null for the generic tables */
+        final String option;
+        /** The other options this kind of run accepts */
+        final Set<String> accepted;
+
+        RunMode(String option, String... accepted) {
+            this.option = option;
+            this.accepted = new HashSet<>(Arrays.asList(accepted));
+        }
+    }
+
+    /**
+     * The outcome of loading a single-writer table while reader threads search it
+     */
+    private static class ReaderResult {
+        long maxInsertNanos;
+        long searches;
+        long notFound;
+        long readNanos;
+    }
+
+    /**
+     * Picks positions in a list of keys for a workload, either uniformly or by a Zipfian
+     * distribution in which position i is picked with probability proportional to
+     * 1 / (i + 1)^s. Zipfian picks binary search a table of cumulative weights.
+     */
+    static class KeyDistribution {
+        private final int size;
+        private final double[] cumulativeWeights;
+
+        /**
+         * Creates a distribution over the positions of a list of keys
+         * 
+         * @param size      The number of keys
+         * @param exponent  The Zipfian exponent s, or 0 to pick uniformly
+         */
+        public KeyDistribution(int size, double exponent) {
+            this.size = size;
+            if (exponent == 0.0) {
+                this.cumulativeWeights = null;
+            } else {
+                this.cumulativeWeights = new double[size];
+                double total = 0;
+                for (int i = 0; i < size; i++) {
+                    total += 1.0 / Math.pow(i + 1, exponent);
+                    cumulativeWeights[i] = total;
+                }
+            }
+        }
+
+        /**
+         * Returns the next position
+         * 
+         * @param random  The source of randomness
+         * @return        A position from 0 to size - 1
+         */
+        public int next(Random random) {
+            if (cumulativeWeights == null) {
+                return random.nextInt(size);
+            }
+            int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble() * cumulativeWeights[size - 1]);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    /**
+     * The outcome of one (strategy, mixer, load factor, data source) run of a sweep
+     */
+    private static class SweepResult {
+        String inputName;
+        double loadFactor;
+        String strategy;
+        HashMixer mixer;
+        int capacity;
+        int numElements;
+        int insertions;
+        int duplicates;
+        int maxProbes;
+        long loadNanos;
+    }
+
+    /**
+     * Interface for saving a hash table dump, so that every kind of table can share saveDump()
+     */
+    private interface TableDump {
+        void dumpToFile(String fileName) throws FileNotFoundException;
     }
 
     /**
@@ -26,7 +196,7 @@ public class HashtableExperiment {
      * 
      * @param <T> the type of test data
      */
-    private interface TestDataGenerator<T> {
+    interface TestDataGenerator<T> {
         T getNext();
         String getInputName();
         void reset();
@@ -36,11 +206,39 @@ public class HashtableExperiment {
     /**
      * Generates random integers
      */
-    private static class RandomIntGenerator implements TestDataGenerator<Integer> {
-        private Random random = new Random();
+    static class RandomIntGenerator implements TestDataGenerator<Integer> {
+        private final Random random;
+        private final boolean seeded;
+        private final long seed;
+
+        public RandomIntGenerator() {
+            this.random = new Random();
+            this.seeded = false;
+            this.seed = 0;
+        }
+
+        /**
+         * Creates a generator that always produces the same sequence, starting over on reset()
+         * 
+         * @param seed  The seed of the sequence
+         */
+        public RandomIntGenerator(long seed) {
+            this.random = new Random(seed);
+            this.seeded = true;
+            this.seed = seed;
+        }
 
         @Override
         public Integer getNext() {
+            return getNextInt();
+        }
+
+        /**
+         * Returns the next random integer without boxing it
+         *
+         * @return the next random integer
+         */
+        public int getNextInt() {
             return random.nextInt();
         }
 
@@ -48,42 +246,89 @@ public class HashtableExperiment {
         public String getInputName() { return "Random-Numbers"; }
 
         @Override
-        public void reset() {}
+        public void reset() {
+            if (seeded) {
+                random.setSeed(seed);
+            }
+        }
 
         @Override
         public void close() {}
     }
 
     /**
-     * Generates a sequence of dates, starting from the current date and time
+     * Generates a sequence of dates one second apart, starting from the current date and
+     * time or from a fixed start
      */
-    private static class DateSequenceGenerator implements TestDataGenerator<Date> {
-        private long current = new Date().getTime();
+    static class DateSequenceGenerator implements TestDataGenerator<Date> {
+        private final long start;
+        private long current;
+
+        public DateSequenceGenerator() {
+            this(-1);
+        }
+
+        /**
+         * Creates a generator whose first date is one second after the given start
+         * 
+         * @param start  The start in milliseconds, or -1 to start from the current date and time
+         */
+        public DateSequenceGenerator(long start) {
+            this.start = start;
+            reset();
+        }
 
         @Override
         public Date getNext() {
+            return new Date(getNextLong());
+        }
+
+        /**
+         * Returns the next date in the sequence as milliseconds, without allocating a Date
+         *
+         * @return the next date value as a long
+         */
+        public long getNextLong() {
             current += 1000;
-            return new Date(current);
+            return current;
         }
 
         @Override
         public String getInputName() { return "Random-Dates"; }
 
         @Override
-        public void reset() { current = new Date().getTime(); }
+        public void reset() { current = start == -1 ? new Date().getTime() : start; }
 
         @Override
         public void close() {}
     }
 
     /**
-     * Generates words from the `word-list.txt` file
+     * Generates words from the `word-list.txt` file, one per line. The file is memory-mapped
+     * once and lines are found by scanning the mapped bytes, splitting exactly where a
+     * Scanner with a System.lineSeparator() delimiter would. Each word is hashed from its
+     * raw bytes first, and a word seen recently is returned as the same String instance
+     * instead of building a new one, so repeated words cost no allocation.
      */
-    private static class WordFileGenerator implements TestDataGenerator<String> {
-        private Scanner scnr;
+    static class WordFileGenerator implements TestDataGenerator<String> {
+        private static final byte[] DELIMITER = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+        private static final int CACHE_SIZE = 1 << 12;
+
+        private MappedByteBuffer words;
+        private int position;
+        private byte[] wordBytes = new byte[64];
+        private final String[] recentWords = new String[CACHE_SIZE];
 
         public WordFileGenerator() {
-            reset();
+            try (FileChannel channel = FileChannel.open(Paths.get("word-list.txt"), StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("word-list.txt is too large to map");
+                }
+                words = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                System.out.println("Error: " + e.getMessage());
+                throw new RuntimeException("Error: " + e.getMessage(), e);
+            }
         }
 
         @Override
@@ -91,36 +336,282 @@ public class HashtableExperiment {
 
         @Override
         public String getNext() {
-            if (scnr == null) {
-                throw new RuntimeException("Scanner is closed.");
+            if (words == null) {
+                throw new RuntimeException("Word list is closed.");
             }
-            if (scnr.hasNext()) {
-                return scnr.next();
-            } else {
+            int end = words.limit();
+            if (isDelimiterAt(position)) {
+                position += DELIMITER.length;
+            }
+            if (position >= end) {
                 throw new RuntimeException("Generator exhausted.");
             }
+
+            int start = position;
+            int hash = 0;
+            boolean ascii = true;
+            while (position < end && !isDelimiterAt(position)) {
+                byte b = words.get(position++);
+                hash = 31 * hash + (b & 0xff);
+                ascii &= b >= 0;
+            }
+            return toWord(start, position - start, hash, ascii);
+        }
+
+        /**
+         * Checks whether the line separator starts at the given offset of the file
+         * 
+         * @param offset  The offset into the mapped file
+         * @return        true if the bytes at offset are the line separator
+         */
+        private boolean isDelimiterAt(int offset) {
+            if (offset + DELIMITER.length > words.limit()) {
+                return false;
+            }
+            for (int i = 0; i < DELIMITER.length; i++) {
+                if (words.get(offset + i) != DELIMITER[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the word stored in the given bytes of the file, reusing the String from
+         * the cache if the same word was seen recently. For ASCII words the byte hash is
+         * the String's hashCode(), so it is used to pick the cache slot.
+         * 
+         * @param start   The offset of the word in the mapped file
+         * @param length  The length of the word in bytes
+         * @param hash    The hash of the word's bytes
+         * @param ascii   Whether every byte of the word is ASCII
+         * @return        The word
+         */
+        private String toWord(int start, int length, int hash, boolean ascii) {
+            if (!ascii) {
+                return new String(copyBytes(start, length), 0, length, Charset.defaultCharset());
+            }
+            int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+            String cached = recentWords[slot];
+            if (cached != null && cached.hashCode() == hash && cached.length() == length) {
+                int i = 0;
+                while (i < length && cached.charAt(i) == words.get(start + i)) {
+                    i++;
+                }
+                if (i == length) {
+                    return cached;
+                }
+            }
+            String word = new String(copyBytes(start, length), 0, length, StandardCharsets.ISO_8859_1);
+            recentWords[slot] = word;
+            return word;
+        }
+
+        /**
+         * Copies bytes of the mapped file into the reusable word buffer
+         * 
+         * @param start   The offset of the bytes in the mapped file
+         * @param length  The number of bytes to copy
+         * @return        The word buffer holding the bytes at its start
+         */
+        private byte[] copyBytes(int start, int length) {
+            if (wordBytes.length < length) {
+                wordBytes = new byte[Math.max(length, 2 * wordBytes.length)];
+            }
+            words.get(start, wordBytes, 0, length);
+            return wordBytes;
         }
 
         @Override
         public void reset() {
-            if (scnr != null) {
-                scnr.close();
+            position = 0;
+        }
+        
+        @Override
+        public void close() {
+            words = null;
+        }
+    }
+
+    /**
+     * Passes the keys of another generator through unchanged while counting each of them
+     * in a sketch-fronted HeavyHitters, so the heavy hitters of a load can be tracked
+     * as the keys stream by
+     */
+    static class SketchingGenerator implements TestDataGenerator<Object> {
+        private final TestDataGenerator<?> source;
+        private final HeavyHitters heavyHitters;
+
+        /**
+         * Creates a generator that counts the keys of source in heavyHitters
+         * 
+         * @param source        The generator to draw keys from
+         * @param heavyHitters  The heavy hitters to add every key to, with a sketch
+         */
+        public SketchingGenerator(TestDataGenerator<?> source, HeavyHitters heavyHitters) {
+            this.source = source;
+            this.heavyHitters = heavyHitters;
+        }
+
+        @Override
+        public Object getNext() {
+            Object key = source.getNext();
+            heavyHitters.add(key);
+            return key;
+        }
+
+        @Override
+        public String getInputName() { return source.getInputName(); }
+
+        @Override
+        public void reset() { source.reset(); }
+
+        @Override
+        public void close() { source.close(); }
+    }
+
+    /**
+     * Draws the keys of another generator on a producer thread, so generating keys (for
+     * the word list, scanning and hashing the file) overlaps with inserting them. The
+     * producer fills batches of keys from a fixed ring of them and hands each one over
+     * through a bounded queue; it blocks once every batch is full or being drained, and
+     * getNext() blocks until a batch is ready. Keys come out in the order the source
+     * produced them, so a table loaded through the pipeline is identical to one loaded
+     * directly. Keys the producer ran ahead with are returned by later getNext() calls
+     * and discarded by reset() and close(), which stop the producer first.
+     */
+    static class PipelinedGenerator implements TestDataGenerator<Object> {
+        /** Number of batches in the ring, which bounds how far the producer runs ahead */
+        static final int RING_BATCHES = 4;
+
+        /**
+         * A batch of keys, with the exception the source threw after its last key, if any
+         */
+        private static class Batch {
+            final Object[] keys;
+            int count;
+            RuntimeException failure;
+
+            Batch(int size) {
+                keys = new Object[size];
+            }
+        }
+
+        private final TestDataGenerator<?> source;
+        private final BlockingQueue<Batch> empty = new ArrayBlockingQueue<>(RING_BATCHES);
+        private final BlockingQueue<Batch> filled = new ArrayBlockingQueue<>(RING_BATCHES);
+        private Thread producer;
+        private Batch current;
+        private int next;
+
+        /**
+         * Creates a pipeline that draws keys from source in batches of batchSize
+         * 
+         * @param source     The generator to draw keys from on the producer thread
+         * @param batchSize  The number of keys handed over at a time
+         */
+        public PipelinedGenerator(TestDataGenerator<?> source, int batchSize) {
+            this.source = source;
+            for (int i = 0; i < RING_BATCHES; i++) {
+                empty.add(new Batch(batchSize));
             }
+        }
+
+        @Override
+        public Object getNext() {
+            while (current == null || next == current.count) {
+                if (current != null) {
+                    if (current.failure != null) {
+                        throw current.failure;
+                    }
+                    empty.add(current);
+                    current = null;
+                }
+                if (producer == null) {
+                    producer = new Thread(this::produce, "key-producer");
+                    producer.setDaemon(true);
+                    producer.start();
+                }
+                try {
+                    current = filled.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Error: interrupted while waiting for keys", e);
+                }
+                next = 0;
+            }
+            return current.keys[next++];
+        }
+
+        /**
+         * Fills empty batches from the source until it throws or the pipeline is stopped
+         */
+        private void produce() {
+            Batch batch = null;
             try {
-                scnr = new Scanner(new File("word-list.txt"));
-            } catch (FileNotFoundException e) {
-                System.out.println("Error: " + e.getMessage());
-                throw new RuntimeException("Error: " + e.getMessage(), e);
+                while (true) {
+                    batch = empty.take();
+                    batch.count = 0;
+                    batch.failure = null;
+                    try {
+                        while (batch.count < batch.keys.length) {
+                            batch.keys[batch.count] = source.getNext();
+                            batch.count++;
+                        }
+                    } catch (RuntimeException e) {
+                        batch.failure = e;
+                    }
+                    boolean failed = batch.failure != null;
+                    filled.add(batch);
+                    batch = null;
+                    if (failed) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupted the wait for an empty batch
+            } finally {
+                if (batch != null) {
+                    empty.add(batch);
+                }
             }
-            scnr.useDelimiter(System.lineSeparator());
         }
-        
+
+        /**
+         * Stops the producer and returns every batch to the ring, discarding the keys
+         * that were generated but not returned yet
+         */
+        private void stop() {
+            if (producer != null) {
+                producer.interrupt();
+                try {
+                    producer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Error: interrupted while stopping the key producer", e);
+                }
+                producer = null;
+            }
+            if (current != null) {
+                empty.add(current);
+                current = null;
+            }
+            filled.drainTo(empty);
+        }
+
+        @Override
+        public String getInputName() { return source.getInputName(); }
+
+        @Override
+        public void reset() {
+            stop();
+            source.reset();
+        }
+
         @Override
         public void close() {
-            if (scnr != null) {
-                scnr.close();
-                scnr = null;
-            }
+            stop();
+            source.close();
         }
     }
 
@@ -136,22 +627,156 @@ public class HashtableExperiment {
         int tableSize = TwinPrimeGenerator.generateTwinPrime(95500, 96000);
         System.out.println("HashtableExperiment: Found a twin prime table capacity: " + tableSize);
 
-        Hashtable linearProbingHashTable = new LinearProbing(tableSize);
-        Hashtable doubleHashingHashTable = new DoubleHashing(tableSize);
+        if (testArgs.mode == RunMode.SWEEP) {
+            runSweep(testArgs, tableSize);
+            return;
+        }
 
-        TestDataGenerator<?> testDataGenerator = buildTestDataGenerator(testArgs);
+        if (testArgs.mode == RunMode.PRIMITIVE) {
+            runPrimitiveTests(testArgs, tableSize);
+            return;
+        }
+        if (testArgs.mode == RunMode.PARALLEL_ARRAYS) {
+            runParallelArrayTests(testArgs, tableSize);
+            return;
+        }
+        if (testArgs.mode == RunMode.ARENA) {
+            runArenaTests(testArgs, tableSize);
+            return;
+        }
+
+        TestDataGenerator<?> testDataGenerator = buildTestDataGenerator(testArgs.dataSource);
+        if (testArgs.pipelineBatch > 0) {
+            testDataGenerator = new PipelinedGenerator(testDataGenerator, testArgs.pipelineBatch);
+        }
+
+        System.out.println("HashtableExperiment: Input: " + testDataGenerator.getInputName() + "\tLoadfactor: " + String.format("%.2f", testArgs.loadFactor));
+
+        boolean first = true;
+        for (String strategy : testArgs.strategies) {
+            for (HashMixer mixer : testArgs.mixers) {
+                if (!first) {
+                    testDataGenerator.reset();
+                    System.out.println();
+                }
+                first = false;
+                if (testArgs.shards > 0) {
+                    String using = getStrategyName(strategy) + (mixer == HashMixer.IDENTITY ? "" : " with " + mixer + " mixing")
+                            + " in " + testArgs.shards + " shards";
+                    try (ShardedHashtable table = buildShardedHashtable(strategy, mixer, tableSize, testArgs)) {
+                        int numObjects = (int) Math.ceil(testArgs.loadFactor * table.getCapacity());
+                        runTest(using, table, numObjects, testDataGenerator, testArgs, getFilePrefix(strategy, mixer) + "-dump.txt");
+                    }
+                    continue;
+                }
+                Hashtable table = buildHashtable(strategy, tableSize, testArgs);
+                table.setHashMixer(mixer);
+                // MASK tables round the capacity up to a power of two, so the load is taken from the table
+                int numObjects = (int) Math.ceil(testArgs.loadFactor * table.getCapacity());
+                String using = getStrategyName(strategy) + (mixer == HashMixer.IDENTITY ? "" : " with " + mixer + " mixing");
+                String prefix = getFilePrefix(strategy, mixer);
+                runTest(using, table, numObjects, testDataGenerator, testArgs, prefix + "-dump.txt", prefix + "-snapshot.bin");
+            }
+        }
+        testDataGenerator.close();
+    }
+
+    /**
+     * Runs the experiment for data sources 1 and 2 using the primitive-keyed tables,
+     * so that no key is ever boxed or wrapped in a HashObject
+     * 
+     * @param testArgs  The TestArgs object
+     * @param tableSize The capacity of the hash tables
+     */
+    private static void runPrimitiveTests(TestArgs testArgs, int tableSize) {
+        int numObjects = (int) Math.ceil(testArgs.loadFactor * tableSize);
+
+        if (testArgs.dataSource == 1) {
+            RandomIntGenerator generator = new RandomIntGenerator();
+            System.out.println("HashtableExperiment: Input: " + generator.getInputName() + "\tLoadfactor: " + String.format("%.2f", testArgs.loadFactor));
+            IntHashtable linear = new IntLinearProbing(tableSize);
+            runTest("Linear Probing", numObjects, () -> linear.insert(generator.getNextInt()), linear::getInsertionCount,
+                    linear::getDuplicateCount, linear::dumpToFile, testArgs, "linear-dump.txt");
+            generator.reset();
+            System.out.println();
+            IntHashtable doubleHashing = new IntDoubleHashing(tableSize);
+            runTest("Double Hashing", numObjects, () -> doubleHashing.insert(generator.getNextInt()), doubleHashing::getInsertionCount,
+                    doubleHashing::getDuplicateCount, doubleHashing::dumpToFile, testArgs, "double-dump.txt");
+            generator.close();
+        } else {
+            DateSequenceGenerator generator = new DateSequenceGenerator();
+            System.out.println("HashtableExperiment: Input: " + generator.getInputName() + "\tLoadfactor: " + String.format("%.2f", testArgs.loadFactor));
+            LongHashtable linear = new LongLinearProbing(tableSize);
+            runTest("Linear Probing", numObjects, () -> linear.insert(generator.getNextLong()), linear::getInsertionCount,
+                    linear::getDuplicateCount, linear::dumpToFile, testArgs, "linear-dump.txt");
+            generator.reset();
+            System.out.println();
+            LongHashtable doubleHashing = new LongDoubleHashing(tableSize);
+            runTest("Double Hashing", numObjects, () -> doubleHashing.insert(generator.getNextLong()), doubleHashing::getInsertionCount,
+                    doubleHashing::getDuplicateCount, doubleHashing::dumpToFile, testArgs, "double-dump.txt");
+            generator.close();
+        }
+    }
+
+    /**
+     * Runs the experiment using the struct-of-arrays tables instead of HashObject slots
+     * 
+     * @param testArgs  The TestArgs object
+     * @param tableSize The capacity of the hash tables
+     */
+    private static void runParallelArrayTests(TestArgs testArgs, int tableSize) {
+        TestDataGenerator<?> generator = buildTestDataGenerator(testArgs.dataSource);
+        TestDataGenerator<?> testDataGenerator = testArgs.pipelineBatch > 0 ? new PipelinedGenerator(generator, testArgs.pipelineBatch) : generator;
+        System.out.println("HashtableExperiment: Input: " + testDataGenerator.getInputName() + "\tLoadfactor: " + String.format("%.2f", testArgs.loadFactor));
+
+        int numObjects = (int) Math.ceil(testArgs.loadFactor * tableSize);
+
+        ParallelArrayHashtable linear = new ParallelArrayLinearProbing(tableSize);
+        runTest("Linear Probing", numObjects, () -> linear.insert(testDataGenerator.getNext()), linear::getInsertionCount,
+                linear::getDuplicateCount, linear::dumpToFile, testArgs, "linear-dump.txt");
+        testDataGenerator.reset();
+        System.out.println();
+        ParallelArrayHashtable doubleHashing = new ParallelArrayDoubleHashing(tableSize);
+        runTest("Double Hashing", numObjects, () -> doubleHashing.insert(testDataGenerator.getNext()), doubleHashing::getInsertionCount,
+                doubleHashing::getDuplicateCount, doubleHashing::dumpToFile, testArgs, "double-dump.txt");
+        testDataGenerator.close();
+    }
 
+    /**
+     * Runs the experiment for data source 3 using the tables that copy String keys into
+     * a byte arena instead of keeping them in HashObject slots
+     * 
+     * @param testArgs  The TestArgs object
+     * @param tableSize The capacity of the hash tables
+     */
+    private static void runArenaTests(TestArgs testArgs, int tableSize) {
+        TestDataGenerator<?> testDataGenerator = buildTestDataGenerator(testArgs.dataSource);
         System.out.println("HashtableExperiment: Input: " + testDataGenerator.getInputName() + "\tLoadfactor: " + String.format("%.2f", testArgs.loadFactor));
 
         int numObjects = (int) Math.ceil(testArgs.loadFactor * tableSize);
 
-        runTest("Linear Probing", linearProbingHashTable, numObjects, testDataGenerator, testArgs, "linear-dump.txt");
+        StringArenaHashtable linear = new StringArenaLinearProbing(tableSize);
+        runTest("Linear Probing", numObjects, () -> linear.insert((String) testDataGenerator.getNext()), linear::getInsertionCount,
+                linear::getDuplicateCount, linear::dumpToFile, testArgs, "linear-dump.txt");
+        printArenaUsage(linear);
         testDataGenerator.reset();
         System.out.println();
-        runTest("Double Hashing", doubleHashingHashTable, numObjects, testDataGenerator, testArgs, "double-dump.txt");
+        StringArenaHashtable doubleHashing = new StringArenaDoubleHashing(tableSize);
+        runTest("Double Hashing", numObjects, () -> doubleHashing.insert((String) testDataGenerator.getNext()), doubleHashing::getInsertionCount,
+                doubleHashing::getDuplicateCount, doubleHashing::dumpToFile, testArgs, "double-dump.txt");
+        printArenaUsage(doubleHashing);
         testDataGenerator.close();
     }
 
+    /**
+     * Print how much of a String arena table's key arena is in use
+     * 
+     * @param table The hash table
+     */
+    private static void printArenaUsage(StringArenaHashtable table) {
+        System.out.println("\tKey arena = " + table.getArenaLength() + " bytes used of " + table.getArenaCapacity());
+    }
+
     /**
      * Parse command line arguments and store them in the TestArgs object
      * 
@@ -159,28 +784,318 @@ public class HashtableExperiment {
      * @param testArgs  TestArgs object to store the parsed arguments
      */
     private static void parseArgs(String[] args, TestArgs testArgs) {
-        if (args.length < 2 || args.length > 3) {
+        List<String> positional = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                parseOption(arg, testArgs);
+            } else {
+                positional.add(arg);
+            }
+        }
+        if (positional.size() < 2 || positional.size() > 3) {
+            exitWithError();
+        }
+        try {
+            String[] dataSources = positional.get(0).split(",");
+            String[] loadFactors = positional.get(1).split(",");
+            testArgs.dataSources = new int[dataSources.length];
+            for (int i = 0; i < dataSources.length; i++) {
+                testArgs.dataSources[i] = Integer.parseInt(dataSources[i]);
+            }
+            testArgs.loadFactors = new double[loadFactors.length];
+            for (int i = 0; i < loadFactors.length; i++) {
+                testArgs.loadFactors[i] = Double.parseDouble(loadFactors[i]);
+            }
+            testArgs.debugLevel = positional.size() == 3 ? Integer.parseInt(positional.get(2)) : 0;
+        } catch (NumberFormatException e) {
+            exitWithError();
+        }
+        testArgs.dataSource = testArgs.dataSources[0];
+        testArgs.loadFactor = testArgs.loadFactors[0];
+        for (int dataSource : testArgs.dataSources) {
+            if (dataSource < 1 || dataSource > 3) {
+                exitWithError();
+            }
+        }
+        for (double loadFactor : testArgs.loadFactors) {
+            if (loadFactor < 0.0 || loadFactor > 1.0) {
+                exitWithError();
+            }
+        }
+        if (testArgs.debugLevel < 0 || testArgs.debugLevel > 2) {
+            exitWithError();
+        }
+
+        for (RunMode mode : RunMode.values()) {
+            if (mode.option != null && testArgs.options.contains(mode.option)) {
+                if (testArgs.mode != RunMode.TABLES) {
+                    exitWithConflict(testArgs.mode.option, mode.option);
+                }
+                testArgs.mode = mode;
+            }
+        }
+        for (String option : testArgs.options) {
+            if (!option.equals(testArgs.mode.option) && !testArgs.mode.accepted.contains(option)) {
+                exitWithConflict(option, testArgs.mode.option);
+            }
+        }
+
+        if (testArgs.mode != RunMode.SWEEP && (testArgs.dataSources.length > 1 || testArgs.loadFactors.length > 1)) {
+            exitWithError("lists of data sources and load factors need --sweep");
+        }
+        if (testArgs.mode == RunMode.PRIMITIVE && testArgs.dataSource == 3) {
+            exitWithError("--primitive needs data source 1 or 2");
+        }
+        if (testArgs.mode == RunMode.ARENA && testArgs.dataSource != 3) {
+            exitWithError("--arena needs data source 3");
+        }
+        if (testArgs.bloomFalsePositiveRate > 0.0 && testArgs.stats == null) {
+            exitWithError("--bloom needs --stats");
+        }
+        if (testArgs.workloadOps == 0 && (testArgs.workloadMix != null || testArgs.keyDistribution != null)) {
+            exitWithError((testArgs.workloadMix != null ? "--mix" : "--keys") + " needs --workload");
+        }
+        if (testArgs.topK == 0 && testArgs.sketchWidth > 0) {
+            exitWithError("--sketch needs --top");
+        }
+        if ("load".equals(testArgs.snapshot)) {
+            // A restored table was never loaded, so it has no heavy hitters and no generator to draw misses from
+            if (testArgs.workloadOps > 0) {
+                exitWithConflict("--snapshot=load", "--workload");
+            }
+            if (testArgs.topK > 0) {
+                exitWithConflict("--snapshot=load", "--top");
+            }
+        }
+        if (testArgs.snapshot != null) {
+            // Snapshots hold the table array only, so they cannot describe the other tables or mixers
+            for (HashMixer mixer : testArgs.mixers) {
+                if (mixer != HashMixer.IDENTITY) {
+                    exitWithConflict("--snapshot", "--mixers=" + mixer.getName());
+                }
+            }
+            requireStrategies(testArgs, "--snapshot", "linear", "double", "robinhood");
+        }
+        if (testArgs.mode == RunMode.THREADS || testArgs.mode == RunMode.READERS) {
+            // Only linear probing and double hashing have concurrent and single-writer versions
+            requireStrategies(testArgs, testArgs.mode.option, "linear", "double");
+        }
+        if (testArgs.workloadMix != null && testArgs.workloadMix[3] > 0) {
+            // Only Robin Hood and SwissTable hashing can delete keys
+            requireStrategies(testArgs, "--mix with deletes", "robinhood", "swiss");
+        }
+        if (testArgs.reduction != null) {
+            // Only the fastlinear and fastdouble tables reduce hash codes without a division
+            List<String> strategies = Arrays.asList(testArgs.strategies);
+            if (!strategies.contains("fastlinear") && !strategies.contains("fastdouble")) {
+                exitWithError("--reduction needs fastlinear or fastdouble in --strategies");
+            }
+        } else {
+            testArgs.reduction = FastIndexHashtable.Reduction.MASK;
+        }
+    }
+
+    /**
+     * Checks that an option is only run with the strategies it supports
+     * 
+     * @param testArgs  The TestArgs object
+     * @param option    The option, as named in the error
+     * @param allowed   The strategies the option supports
+     */
+    private static void requireStrategies(TestArgs testArgs, String option, String... allowed) {
+        for (String strategy : testArgs.strategies) {
+            if (!Arrays.asList(allowed).contains(strategy)) {
+                exitWithError(option + " cannot be combined with the " + strategy + " strategy");
+            }
+        }
+    }
+
+    /**
+     * Parse a single "--name" or "--name=value" option and store it in the TestArgs object
+     * 
+     * @param option    The option as given on the command line
+     * @param testArgs  TestArgs object to store the parsed option
+     */
+    private static void parseOption(String option, TestArgs testArgs) {
+        int equals = option.indexOf('=');
+        String name = equals == -1 ? option : option.substring(0, equals);
+        testArgs.options.add(name);
+        switch (name) {
+            case "--primitive":
+            case "--parallel-arrays":
+            case "--arena":
+                break; // Only select the run mode, which is read from the recorded option names
+            case "--max-load":
+                testArgs.maxLoadFactor = parseOptionValue(option, equals);
+                if (!(testArgs.maxLoadFactor > 0.0 && testArgs.maxLoadFactor <= 1.0)) {
+                    exitWithError();
+                }
+                break;
+            case "--strategies":
+                if (equals == -1) {
+                    exitWithError();
+                }
+                testArgs.strategies = option.substring(equals + 1).split(",");
+                for (String strategy : testArgs.strategies) {
+                    if (getStrategyName(strategy) == null) {
+                        exitWithError();
+                    }
+                }
+                break;
+            case "--incremental":
+                testArgs.incrementalSlots = parsePositiveOptionValue(option, equals);
+                break;
+            case "--threads":
+                testArgs.threads = parsePositiveOptionValue(option, equals);
+                break;
+            case "--batch":
+                testArgs.batchSize = parsePositiveOptionValue(option, equals);
+                break;
+            case "--stats":
+                testArgs.stats = equals == -1 ? "csv" : option.substring(equals + 1);
+                if (!testArgs.stats.equals("csv") && !testArgs.stats.equals("json")) {
+                    exitWithError();
+                }
+                break;
+            case "--pipeline":
+                testArgs.pipelineBatch = equals == -1 ? 1024 : parsePositiveOptionValue(option, equals);
+                break;
+            case "--shards":
+                testArgs.shards = parsePositiveOptionValue(option, equals);
+                break;
+            case "--bloom":
+                testArgs.bloomFalsePositiveRate = parseOptionValue(option, equals);
+                if (!(testArgs.bloomFalsePositiveRate > 0.0 && testArgs.bloomFalsePositiveRate < 1.0)) {
+                    exitWithError();
+                }
+                break;
+            case "--readers":
+                testArgs.readers = parsePositiveOptionValue(option, equals);
+                break;
+            case "--workload":
+                testArgs.workloadOps = parsePositiveOptionValue(option, equals);
+                break;
+            case "--mix":
+                String[] percentages = equals == -1 ? new String[0] : option.substring(equals + 1).split(",");
+                if (percentages.length != 3 && percentages.length != 4) {
+                    exitWithError();
+                }
+                testArgs.workloadMix = new int[WORKLOAD_OPERATIONS.length];
+                int total = 0;
+                for (int i = 0; i < percentages.length; i++) {
+                    try {
+                        testArgs.workloadMix[i] = Integer.parseInt(percentages[i]);
+                    } catch (NumberFormatException e) {
+                        exitWithError();
+                    }
+                    if (testArgs.workloadMix[i] < 0) {
+                        exitWithError();
+                    }
+                    total += testArgs.workloadMix[i];
+                }
+                if (total != 100) {
+                    exitWithError();
+                }
+                break;
+            case "--keys":
+                testArgs.keyDistribution = equals == -1 ? "" : option.substring(equals + 1);
+                if (testArgs.keyDistribution.startsWith("zipf:")) {
+                    testArgs.zipfExponent = parseOptionValue(testArgs.keyDistribution, 4);
+                    if (!(testArgs.zipfExponent > 0.0)) {
+                        exitWithError();
+                    }
+                    testArgs.keyDistribution = "zipf";
+                } else if (!testArgs.keyDistribution.equals("uniform") && !testArgs.keyDistribution.equals("zipf")) {
+                    exitWithError();
+                }
+                break;
+            case "--top":
+                testArgs.topK = parsePositiveOptionValue(option, equals);
+                break;
+            case "--sketch":
+                String[] dimensions = equals == -1 ? new String[0] : option.substring(equals + 1).split("x");
+                if (dimensions.length != 2) {
+                    exitWithError();
+                }
+                testArgs.sketchWidth = parsePositiveOptionValue("=" + dimensions[0], 0);
+                testArgs.sketchDepth = parsePositiveOptionValue("=" + dimensions[1], 0);
+                break;
+            case "--reduction":
+                String reduction = equals == -1 ? "" : option.substring(equals + 1);
+                if (reduction.equals("mask")) {
+                    testArgs.reduction = FastIndexHashtable.Reduction.MASK;
+                } else if (reduction.equals("fastrange")) {
+                    testArgs.reduction = FastIndexHashtable.Reduction.FAST_RANGE;
+                } else {
+                    exitWithError();
+                }
+                break;
+            case "--mixers":
+                if (equals == -1) {
+                    exitWithError();
+                }
+                String[] mixers = option.substring(equals + 1).split(",");
+                testArgs.mixers = new HashMixer[mixers.length];
+                for (int i = 0; i < mixers.length; i++) {
+                    testArgs.mixers[i] = HashMixer.forName(mixers[i]);
+                    if (testArgs.mixers[i] == null) {
+                        exitWithError();
+                    }
+                }
+                break;
+            case "--sweep":
+                testArgs.sweepWorkers = equals == -1 ? Runtime.getRuntime().availableProcessors() : parsePositiveOptionValue(option, equals);
+                break;
+            case "--snapshot":
+                testArgs.snapshot = equals == -1 ? "" : option.substring(equals + 1);
+                if (!testArgs.snapshot.equals("save") && !testArgs.snapshot.equals("load")) {
+                    exitWithError();
+                }
+                break;
+            default:
+                exitWithError();
+        }
+    }
+
+    /**
+     * Parse the numeric value of a "--name=value" option
+     * 
+     * @param option    The option as given on the command line
+     * @param equals    The index of the '=' in the option, or -1 if there is none
+     * @return          The parsed value
+     */
+    private static double parseOptionValue(String option, int equals) {
+        if (equals == -1) {
             exitWithError();
         }
         try {
-            testArgs.dataSource = Integer.parseInt(args[0]);
-            testArgs.loadFactor = Double.parseDouble(args[1]);
-            testArgs.debugLevel = args.length == 3 ? Integer.parseInt(args[2]) : 0;
+            return Double.parseDouble(option.substring(equals + 1));
         } catch (NumberFormatException e) {
             exitWithError();
+            return 0;
         }
-        if ((testArgs.dataSource < 1 || testArgs.dataSource > 3) || 
-            (testArgs.loadFactor < 0.0 || testArgs.loadFactor > 1.0) || 
-            (testArgs.debugLevel < 0 || testArgs.debugLevel > 2)) {
+    }
+
+    /**
+     * Parse the value of a "--name=value" option that must be a positive integer
+     * 
+     * @param option    The option as given on the command line
+     * @param equals    The index of the '=' in the option, or -1 if there is none
+     * @return          The parsed value
+     */
+    private static int parsePositiveOptionValue(String option, int equals) {
+        double value = parseOptionValue(option, equals);
+        if (value < 1 || value > Integer.MAX_VALUE || value != Math.floor(value)) {
             exitWithError();
         }
+        return (int) value;
     }
 
     /**
      * Print the usage message
      */
     private static void printUsage() {
-        System.out.println("Usage: java HashtableExperiment <dataType> <loadFactor> [<debugLevel>]");
+        System.out.println("Usage: java HashtableExperiment <dataType> <loadFactor> [<debugLevel>] [<options>]");
         System.out.println("       <dataSource>: 1 ==> random numbers");
         System.out.println("                     2 ==> date value as a long");
         System.out.println("                     3 ==> word list");
@@ -189,6 +1104,51 @@ public class HashtableExperiment {
         System.out.println("       <debugLevel>: 0 ==> print summary of experiment");
         System.out.println("                     1 ==> save the two hash tables to a file at the end");
         System.out.println("                     2 ==> print debugging output for each insert");
+        System.out.println("       <options>:    --strategies=<s,...> ==> hash tables to run, from linear, double, robinhood,");
+        System.out.println("                       cuckoo, swiss, fastlinear, fastdouble (default linear,double); each dump is");
+        System.out.println("                       saved to <s>-dump.txt");
+        System.out.println("                     --reduction=mask|fastrange ==> how fastlinear and fastdouble map hash codes to slots:");
+        System.out.println("                       a power-of-two capacity and a bit mask (default), or Lemire's multiply-shift;");
+        System.out.println("                       needs fastlinear or fastdouble in --strategies. Load factors count the");
+        System.out.println("                       power-of-two capacity, which the word list cannot fill to 1.0");
+        System.out.println("                     --primitive ==> run int/long keyed linear/double tables on data source 1 or 2");
+        System.out.println("                     --parallel-arrays ==> run linear/double tables that keep keys and counters in");
+        System.out.println("                       parallel arrays, at a fixed capacity");
+        System.out.println("                     --arena ==> run linear/double tables that copy the String keys of data source 3");
+        System.out.println("                       into one byte array, at a fixed capacity");
+        System.out.println("                     --max-load=<f> ==> grow the tables past load factor f, to the next twin prime or, for");
+        System.out.println("                       fastlinear and fastdouble in mask mode, to twice the capacity");
+        System.out.println("                     --incremental=<n> ==> when growing, move n old slots per operation instead of all at once");
+        System.out.println("                     --threads=<n> ==> load concurrent linear/double tables from n worker threads");
+        System.out.println("                     --shards=<n> ==> split the keys by hash across n tables of 1/n the capacity, each");
+        System.out.println("                       loaded by a worker thread of its own");
+        System.out.println("                     --readers=<n> ==> load single-writer linear/double tables while n threads search");
+        System.out.println("                       recently inserted keys without locks, and print their search rate");
+        System.out.println("                     --batch=<n> ==> load the tables through insertAll() n keys at a time, and search them");
+        System.out.println("                       through searchAll() for --stats");
+        System.out.println("                     --pipeline[=<n>] ==> generate keys on a separate thread, handed over n at a time");
+        System.out.println("                       (default 1024) through a bounded ring of batches");
+        System.out.println("                     --snapshot=save ==> also save each table to <s>-snapshot.bin after loading it");
+        System.out.println("                     --snapshot=load ==> restore each table from <s>-snapshot.bin instead of loading it");
+        System.out.println("                     --mixers=<m,...> ==> run each strategy with each hash mixer, from identity, murmur3,");
+        System.out.println("                       fibonacci, seeded, seeded:<n> (default identity); other mixers add -<m> to file names");
+        System.out.println("                     --stats[=csv|json] ==> record probe length histograms, search every key once");
+        System.out.println("                       plus as many new keys, and save the statistics to <s>-stats.csv or .json");
+        System.out.println("                     --bloom=<p> ==> with --stats, check searches against a Bloom filter with a");
+        System.out.println("                       false-positive rate of p before probing, and print how many it answered");
+        System.out.println("                     --workload=<n> ==> after loading each table, run n operations mixed from search hits,");
+        System.out.println("                       search misses, duplicate inserts and deletes, and print the operations per");
+        System.out.println("                       second and the latency percentiles of each kind of operation");
+        System.out.println("                     --mix=<h>,<m>,<i>[,<d>] ==> percentages of hits, misses, duplicate inserts and deletes");
+        System.out.println("                       in the workload (default 80,10,10,0); deletes need robinhood or swiss");
+        System.out.println("                     --keys=uniform|zipf[:<s>] ==> pick the workload keys uniformly (default) or by a");
+        System.out.println("                       Zipfian distribution with exponent s (default 0.99)");
+        System.out.println("                     --top=<k> ==> keep the k most frequent keys up to date while loading and print them");
+        System.out.println("                     --sketch=<w>x<d> ==> also count the keys in a Count-Min Sketch of w counters by d");
+        System.out.println("                       rows and print the k most frequent keys by its estimates");
+        System.out.println("                     --sweep[=<n>] ==> run every strategy for each of a comma-separated list of data");
+        System.out.println("                       sources and load factors on n workers (default one per core), with the same keys");
+        System.out.println("                       on every run, and save one table of results to sweep-results.txt");
     }
 
     /**
@@ -200,24 +1160,290 @@ public class HashtableExperiment {
     }
 
     /**
-     * Factory method for building a TestDataGenerator using the TestArgs object
+     * Print an error and the usage message and exit with error code 1
      * 
-     * @param testArgs  The TestArgs object
-     * @return          The TestDataGenerator of wildcard type
+     * @param message   The error
+     */
+    private static void exitWithError(String message) {
+        System.out.println("Error: " + message);
+        exitWithError();
+    }
+
+    /**
+     * Print an error naming two options that cannot be used together and exit
+     * 
+     * @param option    One option
+     * @param other     The option it conflicts with
+     */
+    private static void exitWithConflict(String option, String other) {
+        exitWithError(option + " cannot be combined with " + other);
+    }
+
+    /**
+     * Factory method for building a TestDataGenerator for a data source
+     * 
+     * @param dataSource  The data source, 1 to 3 as given on the command line
+     * @return            The TestDataGenerator of wildcard type
+     */
+    static TestDataGenerator<?> buildTestDataGenerator(int dataSource) {
+        return buildTestDataGenerator(dataSource, false);
+    }
+
+    /**
+     * Factory method for building a TestDataGenerator for a data source, optionally one
+     * that produces the same keys every time it is built
+     * 
+     * @param dataSource     The data source, 1 to 3 as given on the command line
+     * @param deterministic  Whether to seed the random numbers and fix the start of the dates
+     * @return               The TestDataGenerator of wildcard type
      */
-    private static TestDataGenerator<?> buildTestDataGenerator(TestArgs testArgs) {
-        switch (testArgs.dataSource) {
+    static TestDataGenerator<?> buildTestDataGenerator(int dataSource, boolean deterministic) {
+        switch (dataSource) {
             case 1:
-                return new RandomIntGenerator();
+                return deterministic ? new RandomIntGenerator(DETERMINISTIC_SEED) : new RandomIntGenerator();
             case 2:
-                return new DateSequenceGenerator();
+                return deterministic ? new DateSequenceGenerator(DETERMINISTIC_START) : new DateSequenceGenerator();
             case 3:
                 return new WordFileGenerator();
             default:
-                throw new RuntimeException("Invalid data source: " + testArgs.dataSource);
+                throw new RuntimeException("Invalid data source: " + dataSource);
         }
     }
 
+    /**
+     * Returns the semantic name of a probing strategy given on the command line
+     * 
+     * @param strategy  The strategy as given on the command line
+     * @return          The semantic name, or null if the strategy is unknown
+     */
+    static String getStrategyName(String strategy) {
+        switch (strategy) {
+            case "linear":
+                return "Linear Probing";
+            case "double":
+                return "Double Hashing";
+            case "robinhood":
+                return "Robin Hood Hashing";
+            case "cuckoo":
+                return "Cuckoo Hashing";
+            case "swiss":
+                return "SwissTable Hashing";
+            case "fastlinear":
+                return "Fast Linear Probing";
+            case "fastdouble":
+                return "Fast Double Hashing";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the start of the names of the files saved for a table: the strategy, followed
+     * by the hash mixer unless it is the identity
+     * 
+     * @param strategy  The strategy as given on the command line
+     * @param mixer     The hash mixer of the table
+     * @return          The prefix of the file names
+     */
+    private static String getFilePrefix(String strategy, HashMixer mixer) {
+        return mixer == HashMixer.IDENTITY ? strategy : strategy + "-" + mixer.getName().replace(':', '-');
+    }
+
+    /**
+     * Factory method for building a Hashtable for a probing strategy using the TestArgs object
+     * 
+     * @param strategy  The strategy as given on the command line
+     * @param tableSize The initial capacity of the hash table
+     * @param testArgs  The TestArgs object
+     * @return          The empty hash table
+     */
+    private static Hashtable buildHashtable(String strategy, int tableSize, TestArgs testArgs) {
+        if (testArgs.threads > 1) {
+            return strategy.equals("linear") ? new ConcurrentLinearProbing(tableSize) : new ConcurrentDoubleHashing(tableSize);
+        }
+        if (testArgs.readers > 0) {
+            return strategy.equals("linear") ? new SingleWriterLinearProbing(tableSize, testArgs.maxLoadFactor)
+                    : new SingleWriterDoubleHashing(tableSize, testArgs.maxLoadFactor);
+        }
+        Hashtable table = buildHashtable(strategy, tableSize, testArgs.maxLoadFactor, testArgs.reduction);
+        if (testArgs.incrementalSlots > 0) {
+            table.setIncrementalResize(testArgs.incrementalSlots);
+        }
+        return table;
+    }
+
+    /**
+     * Factory method for building a ShardedHashtable whose shards share the capacity of
+     * one table of a probing strategy
+     * 
+     * @param strategy   The strategy of every shard, as given on the command line
+     * @param mixer      The hash mixer of every shard
+     * @param tableSize  The capacity to split across the shards
+     * @param testArgs   The TestArgs object
+     * @return           The empty sharded hash table, with its workers started
+     */
+    private static ShardedHashtable buildShardedHashtable(String strategy, HashMixer mixer, int tableSize, TestArgs testArgs) {
+        int shardSize = TwinPrimeGenerator.nextTwinPrimeAtLeast((tableSize + testArgs.shards - 1) / testArgs.shards);
+        return new ShardedHashtable(testArgs.shards, shard -> {
+            Hashtable table = buildHashtable(strategy, shardSize, Math.min(testArgs.maxLoadFactor, SHARD_MAX_LOAD), testArgs.reduction);
+            if (testArgs.incrementalSlots > 0) {
+                table.setIncrementalResize(testArgs.incrementalSlots);
+            }
+            table.setHashMixer(mixer);
+            return table;
+        });
+    }
+
+    /**
+     * Factory method for building a single-threaded Hashtable for a probing strategy
+     * 
+     * @param strategy      The strategy as given on the command line
+     * @param tableSize     The initial capacity of the hash table
+     * @param maxLoadFactor The load factor past which the table grows, or 1.0 to never grow
+     * @return              The empty hash table
+     */
+    static Hashtable buildHashtable(String strategy, int tableSize, double maxLoadFactor) {
+        return buildHashtable(strategy, tableSize, maxLoadFactor, FastIndexHashtable.Reduction.MASK);
+    }
+
+    /**
+     * Factory method for building a single-threaded Hashtable for a probing strategy
+     * 
+     * @param strategy      The strategy as given on the command line
+     * @param tableSize     The initial capacity of the hash table
+     * @param maxLoadFactor The load factor past which the table grows, or 1.0 to never grow
+     * @param reduction     How the fastlinear and fastdouble tables map hash codes to slots
+     * @return              The empty hash table
+     */
+    static Hashtable buildHashtable(String strategy, int tableSize, double maxLoadFactor, FastIndexHashtable.Reduction reduction) {
+        switch (strategy) {
+            case "linear":
+                return new LinearProbing(tableSize, maxLoadFactor);
+            case "double":
+                return new DoubleHashing(tableSize, maxLoadFactor);
+            case "robinhood":
+                return new RobinHoodHashing(tableSize, maxLoadFactor);
+            case "cuckoo":
+                return new CuckooHashing(tableSize, maxLoadFactor);
+            case "swiss":
+                return new SwissTableHashing(tableSize, maxLoadFactor);
+            case "fastlinear":
+                return new FastLinearProbing(tableSize, maxLoadFactor, reduction);
+            case "fastdouble":
+                return new FastDoubleHashing(tableSize, maxLoadFactor, reduction);
+            default:
+                throw new RuntimeException("Invalid strategy: " + strategy);
+        }
+    }
+
+    /**
+     * Run every (strategy, mixer, load factor, data source) combination of a sweep as a task on
+     * a fork-join pool, then print the results as one table and save it to a file
+     * 
+     * @param testArgs  The TestArgs object
+     * @param tableSize The initial capacity of the hash tables
+     */
+    private static void runSweep(TestArgs testArgs, int tableSize) {
+        List<Callable<SweepResult>> tasks = new ArrayList<>();
+        for (int dataSource : testArgs.dataSources) {
+            for (double loadFactor : testArgs.loadFactors) {
+                for (String strategy : testArgs.strategies) {
+                    for (HashMixer mixer : testArgs.mixers) {
+                        tasks.add(() -> runSweepTask(strategy, mixer, dataSource, loadFactor, tableSize, testArgs));
+                    }
+                }
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(testArgs.sweepWorkers);
+        List<SweepResult> results = new ArrayList<>();
+        long startNanos = System.nanoTime();
+        try {
+            for (Future<SweepResult> task : pool.invokeAll(tasks)) {
+                results.add(task.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Error: interrupted while running sweep", e);
+        } catch (ExecutionException e) {
+            System.out.println("Error: " + e.getCause().getMessage());
+            throw new RuntimeException("Error: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        long sweepNanos = System.nanoTime() - startNanos;
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-16s %5s %-20s %-16s %9s %9s %10s %10s %10s %10s %10s",
+                "Input", "Load", "Strategy", "Mixer", "Capacity", "Keys", "Inserted", "Duplicates", "Avg probes", "Max probes", "Load ms"));
+        for (SweepResult result : results) {
+            lines.add(String.format("%-16s %5.2f %-20s %-16s %9d %9d %10d %10d %10.2f %10d %10.1f",
+                    result.inputName, result.loadFactor, getStrategyName(result.strategy), result.mixer, result.capacity, result.numElements,
+                    result.insertions, result.duplicates, (double) result.insertions / result.numElements, result.maxProbes,
+                    result.loadNanos / 1e6));
+        }
+
+        System.out.println("HashtableExperiment: Ran " + tasks.size() + " tests on " + testArgs.sweepWorkers + " workers in "
+                + String.format("%.1f", sweepNanos / 1e6) + " ms");
+        try (PrintWriter out = new PrintWriter("sweep-results.txt")) {
+            for (String line : lines) {
+                System.out.println(line);
+                out.println(line);
+            }
+            System.out.println("HashtableExperiment: Saved sweep results to sweep-results.txt");
+        } catch (FileNotFoundException e) {
+            System.out.println("Error: " + e.getMessage());
+            throw new RuntimeException("Error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Run one test of a sweep with its own deterministic data generator
+     * 
+     * @param strategy    The strategy as given on the command line
+     * @param mixer       The hash mixer of the table
+     * @param dataSource  The data source, 1 to 3
+     * @param loadFactor  The load factor to fill the table to
+     * @param tableSize   The initial capacity of the hash table
+     * @param testArgs    The TestArgs object
+     * @return            The outcome of the test
+     */
+    private static SweepResult runSweepTask(String strategy, HashMixer mixer, int dataSource, double loadFactor, int tableSize, TestArgs testArgs) {
+        TestDataGenerator<?> testDataGenerator = buildTestDataGenerator(dataSource, true);
+        Hashtable table = buildHashtable(strategy, tableSize, testArgs);
+        table.setHashMixer(mixer);
+        int numObjects = (int) Math.ceil(loadFactor * table.getCapacity());
+        if (testArgs.stats != null) {
+            table.enableStatistics();
+        }
+
+        long startNanos = System.nanoTime();
+        loadHashtable(table, numObjects, testDataGenerator, testArgs);
+        long loadNanos = System.nanoTime() - startNanos;
+        String prefix = getFilePrefix(strategy, mixer) + "-" + dataSource + "-" + String.format("%.2f", loadFactor);
+        if (testArgs.stats != null) {
+            searchHashtable(table, numObjects, testDataGenerator, testArgs);
+            saveStatistics(table, prefix + "-stats." + testArgs.stats);
+        }
+        testDataGenerator.close();
+        if (testArgs.debugLevel == 1) {
+            saveDump(table::dumpToFile, prefix + "-dump.txt");
+        }
+
+        SweepResult result = new SweepResult();
+        result.inputName = testDataGenerator.getInputName();
+        result.loadFactor = loadFactor;
+        result.strategy = strategy;
+        result.mixer = mixer;
+        result.capacity = table.getCapacity();
+        result.numElements = table.getNumElements();
+        result.insertions = table.getInsertionCount();
+        result.duplicates = table.getDuplicateCount();
+        result.maxProbes = table.getMaxProbeCount();
+        result.loadNanos = loadNanos;
+        return result;
+    }
+
     /**
      * Run a test on a hash table
      * 
@@ -227,23 +1453,419 @@ public class HashtableExperiment {
      * @param testDataGenerator The TestDataGenerator to use for generating test data
      * @param testArgs          The TestArgs object
      * @param fileName          The name of the file to save the hash table dump to
+     * @param snapshotFileName  The name of the binary snapshot file to save or restore the hash table with
      */
-    private static void runTest(String using, Hashtable table, int numObjects, TestDataGenerator<?> testDataGenerator, TestArgs testArgs, String fileName) {
+    private static void runTest(String using, Hashtable table, int numObjects, TestDataGenerator<?> testDataGenerator, TestArgs testArgs, String fileName, String snapshotFileName) {
         System.out.println("\tUsing " + using);
         System.out.println("HashtableExperiment: size of hash table is " + numObjects);
-        loadHashtable(table, numObjects, testDataGenerator, testArgs);
+        int initialCapacity = table.getCapacity();
+        long startNanos = System.nanoTime();
+        long maxInsertNanos = 0;
+        if (testArgs.stats != null) {
+            table.enableStatistics();
+        }
+        if (testArgs.topK > 0) {
+            table.enableHeavyHitters(testArgs.topK);
+        }
+        TestDataGenerator<?> loadGenerator = testDataGenerator;
+        ReaderResult readerResult = null;
+        HeavyHitters sketched = null;
+        if (testArgs.sketchWidth > 0) {
+            sketched = new HeavyHitters(testArgs.topK, new CountMinSketch(testArgs.sketchWidth, testArgs.sketchDepth));
+            loadGenerator = new SketchingGenerator(testDataGenerator, sketched);
+        }
+        if (testArgs.bloomFalsePositiveRate > 0.0) {
+            table.enableBloomFilter(numObjects, testArgs.bloomFalsePositiveRate);
+        }
+        if ("load".equals(testArgs.snapshot)) {
+            table = restoreSnapshot(snapshotFileName);
+            if (testArgs.stats != null) {
+                table.enableStatistics();
+            }
+            if (testArgs.bloomFalsePositiveRate > 0.0) {
+                table.enableBloomFilter(numObjects, testArgs.bloomFalsePositiveRate);
+            }
+        } else if (testArgs.threads > 1) {
+            maxInsertNanos = loadHashtableInParallel(table, numObjects, loadGenerator, testArgs.threads);
+        } else if (testArgs.readers > 0) {
+            readerResult = loadHashtableWithReaders(table, numObjects, loadGenerator, testArgs.readers);
+            maxInsertNanos = readerResult.maxInsertNanos;
+        } else {
+            maxInsertNanos = loadHashtable(table, numObjects, loadGenerator, testArgs);
+        }
+        long loadNanos = System.nanoTime() - startNanos;
+        if (table.getCapacity() != initialCapacity) {
+            System.out.println("HashtableExperiment: capacity of hash table grew to " + table.getCapacity());
+        }
         int insertions = table.getInsertionCount();
         int duplicates = table.getDuplicateCount();
         System.out.println("\tInserted " + insertions + " elements, of which " + duplicates + " were duplicates");
+        System.out.println("\tAvg. no. of probes = " + String.format("%.2f", (double) insertions / table.getNumElements()));
+        System.out.println("\tMax no. of probes = " + table.getMaxProbeCount());
+        if (table instanceof CuckooHashing) {
+            CuckooHashing cuckoo = (CuckooHashing) table;
+            System.out.println("\tEvictions = " + cuckoo.getKickCount() + ", stashed keys = " + cuckoo.getStashCount());
+        }
+        if (table instanceof SwissTableHashing) {
+            System.out.println("\tKey comparisons = " + ((SwissTableHashing) table).getKeyComparisonCount());
+        }
+        System.out.println("\t" + (testArgs.batchSize > 0 ? "Max batch latency = " : "Max insert latency = ") + String.format("%.1f", maxInsertNanos / 1000.0) + " us");
+        System.out.println("\tLoad time = " + String.format("%.1f", loadNanos / 1e6) + " ms");
+        if (readerResult != null) {
+            System.out.println("\tReader searches = " + readerResult.searches + " (" + String.format("%.0f", readerResult.searches / (readerResult.readNanos / 1e9))
+                    + " per second across " + testArgs.readers + " readers), not found = " + readerResult.notFound);
+        }
+        if (testArgs.topK > 0) {
+            System.out.println("\tTop " + testArgs.topK + " keys: " + table.getHeavyHitters());
+        }
+        if (sketched != null) {
+            CountMinSketch sketch = sketched.getSketch();
+            System.out.println("\tTop " + testArgs.topK + " keys by sketch (" + sketch.getWidth() + " x " + sketch.getDepth() + " counters, "
+                    + (8L * sketch.getWidth() * sketch.getDepth() / 1024) + " KB): " + sketched);
+        }
+        if (testArgs.stats != null) {
+            searchHashtable(table, numObjects, testDataGenerator, testArgs);
+            ProbeStatistics statistics = table.getStatistics();
+            System.out.println("\tInsert probes: " + statistics.getInsertProbes());
+            System.out.println("\tSearch probes (found): " + statistics.getSearchHitProbes());
+            System.out.println("\tSearch probes (not found): " + statistics.getSearchMissProbes());
+            System.out.println("\tCluster lengths: " + table.getClusterLengths());
+            System.out.println("\tKey comparisons (inserts and searches) = " + statistics.getKeyComparisonCount());
+            if (table.getBloomFilter() != null) {
+                System.out.println("\tBloom filter: " + table.getBloomFilter());
+            }
+            saveStatistics(table, fileName.replace("-dump.txt", "-stats." + testArgs.stats));
+        }
+        if ("save".equals(testArgs.snapshot)) {
+            saveSnapshot(table, snapshotFileName);
+        }
         if (testArgs.debugLevel == 1) {
-            try {
-                table.dumpToFile(fileName);
-                System.out.println("HashtableExperiment: Saved dump of hash table");
-            } catch (FileNotFoundException e) {
-                System.out.println("Error: " + e.getMessage());
-                throw new RuntimeException("Error: " + e.getMessage(), e);
+            saveDump(table::dumpToFile, fileName);
+        }
+        if (testArgs.workloadOps > 0) {
+            runWorkload(table, testDataGenerator, testArgs);
+        }
+    }
+
+    /**
+     * Run a mixed workload on a loaded hash table and print its throughput and the latency
+     * percentiles of each kind of operation. The keys the table holds are sorted into an
+     * order that does not depend on the strategy and shuffled with a fixed seed, so every
+     * strategy gives each key the same popularity, and misses are drawn from the generator
+     * past the keys the table was loaded with, without searching the table, so its
+     * statistics and Bloom filter only count the workload. Every operation and key is
+     * picked before the clock starts. Each delete is followed by an untimed insert of the
+     * same key, so the table keeps its load.
+     * 
+     * @param table             The loaded hash table
+     * @param testDataGenerator The TestDataGenerator the table was loaded from
+     * @param testArgs          The TestArgs object
+     */
+    private static void runWorkload(Hashtable table, TestDataGenerator<?> testDataGenerator, TestArgs testArgs) {
+        table.finishMigration();
+        List<Object> present = new ArrayList<>(table.getNumElements());
+        for (HashObject obj : table.getEntries()) {
+            present.add(obj.getKey());
+        }
+        Set<Object> presentSet = new HashSet<>(present);
+        present.sort(Comparator.comparingInt(Object::hashCode).thenComparing(Object::toString));
+        Collections.shuffle(present, new Random(DETERMINISTIC_SEED));
+        int[] mix = testArgs.workloadMix == null ? DEFAULT_WORKLOAD_MIX : testArgs.workloadMix;
+        List<Object> missing = new ArrayList<>();
+        try {
+            while (mix[1] > 0 && missing.size() < present.size()) {
+                Object key = testDataGenerator.getNext();
+                if (!presentSet.contains(key)) {
+                    missing.add(key);
+                }
+            }
+        } catch (RuntimeException e) {
+            // The word list ran out, so misses are drawn from fewer keys
+        }
+        if (mix[1] > 0 && missing.isEmpty()) {
+            System.out.println("Error: no keys are left in " + testDataGenerator.getInputName() + " to search for misses");
+            throw new RuntimeException("Error: no keys are left in " + testDataGenerator.getInputName() + " to search for misses");
+        }
+
+        double exponent = "zipf".equals(testArgs.keyDistribution) ? testArgs.zipfExponent : 0.0;
+        KeyDistribution presentKeys = new KeyDistribution(present.size(), exponent);
+        KeyDistribution missingKeys = missing.isEmpty() ? null : new KeyDistribution(missing.size(), exponent);
+        Random random = new Random(DETERMINISTIC_SEED);
+        int numOps = testArgs.workloadOps;
+        byte[] operations = new byte[numOps];
+        Object[] keys = new Object[numOps];
+        int[] counts = new int[WORKLOAD_OPERATIONS.length];
+        for (int i = 0; i < numOps; i++) {
+            int roll = random.nextInt(100);
+            int op = 0;
+            while (roll >= mix[op]) {
+                roll -= mix[op];
+                op++;
+            }
+            operations[i] = (byte) op;
+            keys[i] = op == 1 ? missing.get(missingKeys.next(random)) : present.get(presentKeys.next(random));
+            counts[op]++;
+        }
+
+        long[][] latencies = new long[WORKLOAD_OPERATIONS.length][];
+        for (int op = 0; op < latencies.length; op++) {
+            latencies[op] = new long[counts[op]];
+        }
+        int[] done = new int[WORKLOAD_OPERATIONS.length];
+        int hitsNotFound = 0;
+        int missesFound = 0;
+        long reinsertNanos = 0;
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < numOps; i++) {
+            Object key = keys[i];
+            int op = operations[i];
+            long start = System.nanoTime();
+            switch (op) {
+                case 0:
+                    if (table.search(key) == -1) {
+                        hitsNotFound++;
+                    }
+                    break;
+                case 1:
+                    if (table.search(key) != -1) {
+                        missesFound++;
+                    }
+                    break;
+                case 2:
+                    table.insert(key);
+                    break;
+                default:
+                    deleteKey(table, key);
+                    break;
+            }
+            long end = System.nanoTime();
+            latencies[op][done[op]++] = end - start;
+            if (op == 3) {
+                table.insert(key);
+                reinsertNanos += System.nanoTime() - end;
+            }
+        }
+        long workloadNanos = System.nanoTime() - startNanos - reinsertNanos;
+
+        StringBuilder mixLine = new StringBuilder();
+        for (int op = 0; op < mix.length; op++) {
+            mixLine.append(op == 0 ? "" : ", ").append(mix[op]).append("% ").append(WORKLOAD_OPERATIONS[op]);
+        }
+        System.out.println("\tWorkload = " + numOps + " operations (" + mixLine + ") on "
+                + (exponent == 0.0 ? "uniform keys" : "Zipfian keys (s = " + exponent + ")"));
+        System.out.println("\tWorkload throughput = " + String.format("%.0f", numOps / (workloadNanos / 1e9)) + " operations per second");
+        for (int op = 0; op < latencies.length; op++) {
+            if (latencies[op].length > 0) {
+                long[] sorted = latencies[op];
+                Arrays.sort(sorted);
+                System.out.println("\t" + Character.toUpperCase(WORKLOAD_OPERATIONS[op].charAt(0)) + WORKLOAD_OPERATIONS[op].substring(1)
+                        + ": " + sorted.length + " operations, p50 = " + percentile(sorted, 0.5) + " ns, p90 = " + percentile(sorted, 0.9)
+                        + " ns, p99 = " + percentile(sorted, 0.99) + " ns, p99.9 = " + percentile(sorted, 0.999)
+                        + " ns, max = " + sorted[sorted.length - 1] + " ns");
             }
         }
+        System.out.println("\tWorkload hits not found = " + hitsNotFound + ", misses found = " + missesFound);
+        if (table.getHeavyHitters() != null) {
+            System.out.println("\tTop " + testArgs.topK + " keys after the workload: " + table.getHeavyHitters());
+        }
+        if (table.getBloomFilter() != null) {
+            System.out.println("\tBloom filter after the workload: " + table.getBloomFilter());
+        }
+    }
+
+    /**
+     * Returns a percentile of sorted latencies by the nearest-rank method
+     * 
+     * @param sorted    The latencies, in ascending order
+     * @param fraction  The percentile, as a fraction from 0 to 1
+     * @return          The smallest latency at least that fraction of the latencies are no greater than
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Delete a key from a hash table of a strategy that supports deletion
+     * 
+     * @param table The Robin Hood or SwissTable hash table
+     * @param key   The key to delete
+     * @return      The number of probes required to find the key, or -1 if the key is not found
+     */
+    private static int deleteKey(Hashtable table, Object key) {
+        if (table instanceof RobinHoodHashing) {
+            return ((RobinHoodHashing) table).delete(key);
+        }
+        return ((SwissTableHashing) table).delete(key);
+    }
+
+    /**
+     * Search a loaded hash table once for every key it holds, then for as many keys
+     * drawn from the generator, most of which it does not hold, so that its statistics
+     * cover successful and failed searches
+     * 
+     * @param table             The loaded hash table
+     * @param numObjects        The number of new keys to search for
+     * @param testDataGenerator The TestDataGenerator the table was loaded from
+     * @param testArgs          The TestArgs object
+     */
+    private static void searchHashtable(Hashtable table, int numObjects, TestDataGenerator<?> testDataGenerator, TestArgs testArgs) {
+        table.finishMigration();
+        List<Object> keys = new ArrayList<>();
+        for (HashObject obj : table.getEntries()) {
+            keys.add(obj.getKey());
+        }
+        try {
+            for (int i = 0; i < numObjects; i++) {
+                keys.add(testDataGenerator.getNext());
+            }
+        } catch (RuntimeException e) {
+            // The word list ran out, so fewer failed searches are recorded
+        }
+        if (testArgs.batchSize > 0) {
+            table.searchAll(keys.toArray());
+        } else {
+            for (Object key : keys) {
+                table.search(key);
+            }
+        }
+    }
+
+    /**
+     * Save the statistics of a hash table, with its cluster lengths, as CSV or JSON
+     * depending on the extension of the file name
+     * 
+     * @param table     The hash table with statistics enabled
+     * @param fileName  The name of the statistics file
+     */
+    private static void saveStatistics(Hashtable table, String fileName) {
+        try {
+            if (fileName.endsWith(".json")) {
+                table.getStatistics().saveJson(fileName, table.getClusterLengths());
+            } else {
+                table.getStatistics().saveCsv(fileName, table.getClusterLengths());
+            }
+            System.out.println("HashtableExperiment: Saved statistics of hash table to " + fileName);
+        } catch (FileNotFoundException e) {
+            System.out.println("Error: " + e.getMessage());
+            throw new RuntimeException("Error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Save a binary snapshot of a hash table to a file
+     * 
+     * @param table     The hash table to save
+     * @param fileName  The name of the snapshot file
+     */
+    private static void saveSnapshot(Hashtable table, String fileName) {
+        try {
+            long startNanos = System.nanoTime();
+            HashtableSnapshot.save(table, fileName);
+            System.out.println("HashtableExperiment: Saved snapshot of hash table in " + String.format("%.1f", (System.nanoTime() - startNanos) / 1e6) + " ms");
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+            throw new RuntimeException("Error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Restore a hash table from a binary snapshot file
+     * 
+     * @param fileName  The name of the snapshot file
+     * @return          The restored hash table
+     */
+    private static Hashtable restoreSnapshot(String fileName) {
+        try {
+            Hashtable table = HashtableSnapshot.load(fileName);
+            System.out.println("HashtableExperiment: Restored hash table from snapshot");
+            return table;
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+            throw new RuntimeException("Error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Run a test on a hash table that does not extend Hashtable, such as a struct-of-arrays,
+     * String arena or primitive keyed table
+     * 
+     * @param using             The semantic name of the type of hash table being used
+     * @param numObjects        The number of objects to insert into the hash table
+     * @param insertNext        Inserts the next key from the generator and returns its probe count, or -1 if it was a duplicate
+     * @param insertionCount    Returns the total number of probes of the inserts
+     * @param duplicateCount    Returns the number of duplicate keys inserted
+     * @param table             The dump method of the hash table
+     * @param testArgs          The TestArgs object
+     * @param fileName          The name of the file to save the hash table dump to
+     */
+    private static void runTest(String using, int numObjects, IntSupplier insertNext, IntSupplier insertionCount,
+            IntSupplier duplicateCount, TableDump table, TestArgs testArgs, String fileName) {
+        System.out.println("\tUsing " + using);
+        System.out.println("HashtableExperiment: size of hash table is " + numObjects);
+        int insertedObjects = 0;
+        while (insertedObjects < numObjects) {
+            if (insertNext.getAsInt() != -1) {
+                insertedObjects++;
+            }
+        }
+        System.out.println("\tInserted " + insertionCount.getAsInt() + " elements, of which " + duplicateCount.getAsInt() + " were duplicates");
+        if (testArgs.debugLevel == 1) {
+            saveDump(table, fileName);
+        }
+    }
+
+    /**
+     * Run a test on a sharded hash table. Keys are drawn from the generator in rounds no
+     * longer than the number of keys still missing, and each round is flushed before the
+     * next, so exactly the same keys are inserted as by loadHashtable().
+     * 
+     * @param using             The semantic name of the type of hash table being used
+     * @param table             The sharded hash table to test
+     * @param numObjects        The number of objects to insert into the hash table
+     * @param testDataGenerator The TestDataGenerator to use for generating test data
+     * @param testArgs          The TestArgs object
+     * @param fileName          The name of the file to save the hash table dump to
+     */
+    private static void runTest(String using, ShardedHashtable table, int numObjects, TestDataGenerator<?> testDataGenerator, TestArgs testArgs, String fileName) {
+        System.out.println("\tUsing " + using);
+        System.out.println("HashtableExperiment: size of hash table is " + numObjects);
+        int initialCapacity = table.getCapacity();
+        long startNanos = System.nanoTime();
+        int remaining;
+        while ((remaining = numObjects - table.getNumElements()) > 0) {
+            for (int i = 0; i < remaining; i++) {
+                table.insert(testDataGenerator.getNext());
+            }
+        }
+        long loadNanos = System.nanoTime() - startNanos;
+        if (table.getCapacity() != initialCapacity) {
+            System.out.println("HashtableExperiment: capacity of hash table grew to " + table.getCapacity());
+        }
+        int insertions = table.getInsertionCount();
+        System.out.println("\tInserted " + insertions + " elements, of which " + table.getDuplicateCount() + " were duplicates");
+        System.out.println("\tAvg. no. of probes = " + String.format("%.2f", (double) insertions / table.getNumElements()));
+        System.out.println("\tMax no. of probes = " + table.getMaxProbeCount());
+        System.out.println("\tLoad time = " + String.format("%.1f", loadNanos / 1e6) + " ms");
+        if (testArgs.debugLevel == 1) {
+            saveDump(table::dumpToFile, fileName);
+        }
+    }
+
+    /**
+     * Save a dump of a hash table to a file
+     * 
+     * @param table     The dump method of the hash table to save
+     * @param fileName  The name of the file to save the hash table dump to
+     */
+    private static void saveDump(TableDump table, String fileName) {
+        try {
+            table.dumpToFile(fileName);
+            System.out.println("HashtableExperiment: Saved dump of hash table");
+        } catch (FileNotFoundException e) {
+            System.out.println("Error: " + e.getMessage());
+            throw new RuntimeException("Error: " + e.getMessage(), e);
+        }
     }
 
     /**
@@ -253,15 +1875,180 @@ public class HashtableExperiment {
      * @param numObjects        The number of objects to insert into the hash table
      * @param testDataGenerator The TestDataGenerator to use for generating test data
      * @param testArgs          The TestArgs object
+     * @return                  The latency of the slowest insert, in nanoseconds
      */
-    private static void loadHashtable(Hashtable table, int numObjects, TestDataGenerator<?> testDataGenerator, TestArgs testArgs) {
+    private static long loadHashtable(Hashtable table, int numObjects, TestDataGenerator<?> testDataGenerator, TestArgs testArgs) {
+        if (testArgs.batchSize > 0) {
+            return loadHashtableInBatches(table, numObjects, testDataGenerator, testArgs.batchSize);
+        }
         int insertedObjects = 0;
+        long maxInsertNanos = 0;
         while (insertedObjects < numObjects) {
             Object key = testDataGenerator.getNext();
+            long start = System.nanoTime();
             int idx = table.insert(key);
+            maxInsertNanos = Math.max(maxInsertNanos, System.nanoTime() - start);
             if (idx != -1) {
                 insertedObjects++;
             }
         }
+        return maxInsertNanos;
+    }
+
+    /**
+     * Load a hash table with test data through insertAll(). Keys are drawn from the
+     * generator in batches no longer than the number of keys still missing, so exactly
+     * the same keys are inserted as by loadHashtable() one at a time.
+     * 
+     * @param table             The hash table to load
+     * @param numObjects        The number of objects to insert into the hash table
+     * @param testDataGenerator The TestDataGenerator to use for generating test data
+     * @param batchSize         The maximum number of keys per insertAll() call
+     * @return                  The latency of the slowest batch, in nanoseconds
+     */
+    private static long loadHashtableInBatches(Hashtable table, int numObjects, TestDataGenerator<?> testDataGenerator, int batchSize) {
+        long maxBatchNanos = 0;
+        Object[] keys = new Object[batchSize];
+        int remaining;
+        while ((remaining = numObjects - table.getNumElements()) > 0) {
+            if (remaining < keys.length) {
+                keys = new Object[remaining];
+            }
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = testDataGenerator.getNext();
+            }
+            long start = System.nanoTime();
+            table.insertAll(keys);
+            maxBatchNanos = Math.max(maxBatchNanos, System.nanoTime() - start);
+        }
+        return maxBatchNanos;
+    }
+
+    /**
+     * Load a single-writer hash table with test data on this thread while reader threads
+     * search it. After each insert the key is published to a ring of the RECENT_KEYS
+     * most recently inserted keys, and every reader repeatedly searches a random key of
+     * the ring, so each search is for a key that was already in the table and must be
+     * found.
+     * 
+     * @param table             The single-writer hash table to load
+     * @param numObjects        The number of objects to insert into the hash table
+     * @param testDataGenerator The TestDataGenerator to use for generating test data
+     * @param readers           The number of reader threads
+     * @return                  The slowest insert and the searches of the readers
+     */
+    private static ReaderResult loadHashtableWithReaders(Hashtable table, int numObjects, TestDataGenerator<?> testDataGenerator, int readers) {
+        AtomicReferenceArray<Object> recentKeys = new AtomicReferenceArray<>(RECENT_KEYS);
+        LongAdder searches = new LongAdder();
+        LongAdder notFound = new LongAdder();
+        ExecutorService workers = Executors.newFixedThreadPool(readers);
+        List<Future<?>> readerTasks = new ArrayList<>();
+        AtomicBoolean loading = new AtomicBoolean(true);
+        ReaderResult result = new ReaderResult();
+        long startNanos = System.nanoTime();
+        try {
+            for (int r = 0; r < readers; r++) {
+                readerTasks.add(workers.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long readerSearches = 0;
+                    long readerNotFound = 0;
+                    while (loading.get()) {
+                        Object key = recentKeys.get(random.nextInt(RECENT_KEYS));
+                        if (key != null) {
+                            readerSearches++;
+                            if (table.search(key) == -1) {
+                                readerNotFound++;
+                            }
+                        }
+                    }
+                    searches.add(readerSearches);
+                    notFound.add(readerNotFound);
+                }));
+            }
+
+            int insertedObjects = 0;
+            int published = 0;
+            while (insertedObjects < numObjects) {
+                Object key = testDataGenerator.getNext();
+                long start = System.nanoTime();
+                int idx = table.insert(key);
+                result.maxInsertNanos = Math.max(result.maxInsertNanos, System.nanoTime() - start);
+                recentKeys.lazySet(published++ & (RECENT_KEYS - 1), key);
+                if (idx != -1) {
+                    insertedObjects++;
+                }
+            }
+        } finally {
+            loading.set(false);
+            workers.shutdown();
+        }
+        try {
+            for (Future<?> readerTask : readerTasks) {
+                readerTask.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Error: interrupted while stopping readers", e);
+        } catch (ExecutionException e) {
+            System.out.println("Error: " + e.getCause().getMessage());
+            throw new RuntimeException("Error: " + e.getCause().getMessage(), e.getCause());
+        }
+        result.readNanos = System.nanoTime() - startNanos;
+        result.searches = searches.sum();
+        result.notFound = notFound.sum();
+        return result;
+    }
+
+    /**
+     * Load a concurrent hash table with test data from several worker threads. Keys are
+     * drawn from the generator on this thread in chunks no longer than the number of keys
+     * still missing, so exactly the same keys are inserted as by loadHashtable().
+     * 
+     * @param table             The concurrent hash table to load
+     * @param numObjects        The number of objects to insert into the hash table
+     * @param testDataGenerator The TestDataGenerator to use for generating test data
+     * @param threads           The number of worker threads
+     * @return                  The latency of the slowest insert, in nanoseconds
+     */
+    private static long loadHashtableInParallel(Hashtable table, int numObjects, TestDataGenerator<?> testDataGenerator, int threads) {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long maxInsertNanos = 0;
+        try {
+            int remaining;
+            while ((remaining = numObjects - table.getNumElements()) > 0) {
+                Object[] keys = new Object[remaining];
+                for (int i = 0; i < remaining; i++) {
+                    keys[i] = testDataGenerator.getNext();
+                }
+
+                List<Callable<Long>> slices = new ArrayList<>();
+                int sliceSize = (remaining + threads - 1) / threads;
+                for (int from = 0; from < remaining; from += sliceSize) {
+                    int start = from;
+                    int end = Math.min(remaining, from + sliceSize);
+                    slices.add(() -> {
+                        long sliceMaxNanos = 0;
+                        for (int i = start; i < end; i++) {
+                            long insertStart = System.nanoTime();
+                            table.insert(keys[i]);
+                            sliceMaxNanos = Math.max(sliceMaxNanos, System.nanoTime() - insertStart);
+                        }
+                        return sliceMaxNanos;
+                    });
+                }
+                for (Future<Long> slice : workers.invokeAll(slices)) {
+                    maxInsertNanos = Math.max(maxInsertNanos, slice.get());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Error: interrupted while loading hash table", e);
+        } catch (ExecutionException e) {
+            System.out.println("Error: " + e.getCause().getMessage());
+            throw new RuntimeException("Error: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            workers.shutdown();
+        }
+        return maxInsertNanos;
     }
 }
\ No newline at end of file
@@ -0,0 +1,243 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+
+/**
+ * The HashtableSnapshot class saves a hash table to a compact binary file and restores
+ * it, so that a table does not have to be rebuilt from its input on every run. Both
+ * directions go through a memory-mapped FileChannel.
+ *
+ * A snapshot starts with a header (magic number, format version, strategy, capacity,
+ * number of keys, running insertion and duplicate totals, maximum load factor) followed
+ * by one record per occupied slot: the slot index, a key type tag, the key, the frequency
+ * count and the probe count. Integer, Long, Date and String keys are supported. Only
+ * tables whose whole state lives in their table array can be saved: LinearProbing,
+ * DoubleHashing and RobinHoodHashing, using the identity hash mixer.
+ *
+ * @author Jeremiah Robinson
+ */
+public class HashtableSnapshot {
+    private static final int MAGIC = 0x48545350; // "HTSP"
+    private static final int VERSION = 1;
+
+    private static final byte INTEGER_KEY = 1;
+    private static final byte LONG_KEY = 2;
+    private static final byte DATE_KEY = 3;
+    private static final byte STRING_KEY = 4;
+
+    private static final int HEADER_BYTES = 4 + 4 + 1 + 4 + 4 + 4 + 4 + 8;
+    private static final int RECORD_BYTES = 4 + 1 + 4 + 4; // index, key tag, frequency, probes
+
+    /**
+     * Saves a hash table to a snapshot file, replacing the file if it exists
+     *
+     * @param table the hash table to save
+     * @param fileName the name of the snapshot file
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the table's strategy, hash mixer or one of its keys is not supported
+     */
+    public static void save(Hashtable table, String fileName) throws IOException {
+        byte strategy = strategyOf(table);
+        if (table.getHashMixer() != HashMixer.IDENTITY) {
+            throw new IllegalArgumentException("Snapshots are not supported for tables with the " + table.getHashMixer() + " hash mixer");
+        }
+        table.finishMigration();
+
+        // The record size depends on the keys, so encode strings once up front
+        byte[][] encodedStrings = new byte[table.size][];
+        long totalBytes = HEADER_BYTES;
+        for (int i = 0; i < table.size; i++) {
+            HashObject obj = table.table[i];
+            if (obj != null) {
+                Object key = obj.getKey();
+                if (key instanceof String) {
+                    encodedStrings[i] = ((String) key).getBytes(StandardCharsets.UTF_8);
+                }
+                totalBytes += RECORD_BYTES + keyBytes(key, encodedStrings[i]);
+            }
+        }
+
+        Path path = Paths.get(fileName);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, totalBytes);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.put(strategy);
+            out.putInt(table.size);
+            out.putInt(table.numElements);
+            out.putInt(table.insertionCount);
+            out.putInt(table.duplicateCount);
+            out.putDouble(table.maxLoadFactor);
+
+            for (int i = 0; i < table.size; i++) {
+                HashObject obj = table.table[i];
+                if (obj != null) {
+                    out.putInt(i);
+                    putKey(out, obj.getKey(), encodedStrings[i]);
+                    out.putInt(obj.getFrequencyCount());
+                    out.putInt(obj.getProbeCount());
+                }
+            }
+            out.force();
+        }
+    }
+
+    /**
+     * Restores a hash table from a snapshot file
+     *
+     * @param fileName the name of the snapshot file
+     * @return the restored hash table
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static Hashtable load(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+                throw new IOException("Not a hash table snapshot: " + fileName);
+            }
+            int version = in.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + fileName);
+            }
+            byte strategy = in.get();
+            int capacity = in.getInt();
+            int numElements = in.getInt();
+            int insertionCount = in.getInt();
+            int duplicateCount = in.getInt();
+            double maxLoadFactor = in.getDouble();
+
+            Hashtable table = newTable(strategy, capacity, maxLoadFactor, fileName);
+            for (int n = 0; n < numElements; n++) {
+                int index = in.getInt();
+                Object key = getKey(in, fileName);
+                int frequencyCount = in.getInt();
+                int probeCount = in.getInt();
+                table.table[index] = new HashObject(key, frequencyCount, probeCount);
+            }
+            table.numElements = numElements;
+            table.insertionCount = insertionCount;
+            table.duplicateCount = duplicateCount;
+            return table;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Truncated or corrupt snapshot: " + fileName, e);
+        }
+    }
+
+    /**
+     * Returns the strategy tag of a hash table
+     *
+     * @param table the hash table
+     * @return the tag written to the header
+     * @throws IllegalArgumentException if the table's strategy cannot be saved
+     */
+    private static byte strategyOf(Hashtable table) {
+        Class<?> type = table.getClass();
+        if (type == LinearProbing.class) {
+            return 1;
+        } else if (type == DoubleHashing.class) {
+            return 2;
+        } else if (type == RobinHoodHashing.class) {
+            return 3;
+        }
+        throw new IllegalArgumentException("Snapshots are not supported for " + type.getName());
+    }
+
+    /**
+     * Builds an empty hash table for a strategy tag read from a header
+     *
+     * @param strategy the strategy tag
+     * @param capacity the capacity of the table
+     * @param maxLoadFactor the maximum load factor of the table
+     * @param fileName the name of the snapshot file, for error messages
+     * @return the empty hash table
+     * @throws IOException if the tag is unknown
+     */
+    private static Hashtable newTable(byte strategy, int capacity, double maxLoadFactor, String fileName) throws IOException {
+        switch (strategy) {
+            case 1:
+                return new LinearProbing(capacity, maxLoadFactor);
+            case 2:
+                return new DoubleHashing(capacity, maxLoadFactor);
+            case 3:
+                return new RobinHoodHashing(capacity, maxLoadFactor);
+            default:
+                throw new IOException("Unknown strategy " + strategy + " in snapshot: " + fileName);
+        }
+    }
+
+    /**
+     * Returns the number of bytes a key takes after its type tag
+     *
+     * @param key the key
+     * @param encoded the UTF-8 bytes of the key if it is a String, otherwise null
+     * @return the size of the key in bytes
+     * @throws IllegalArgumentException if the key type is not supported
+     */
+    private static int keyBytes(Object key, byte[] encoded) {
+        if (key instanceof Integer) {
+            return 4;
+        } else if (key instanceof Long || key instanceof Date) {
+            return 8;
+        } else if (key instanceof String) {
+            return 4 + encoded.length;
+        }
+        throw new IllegalArgumentException("Unsupported key type: " + key.getClass().getName());
+    }
+
+    /**
+     * Writes a key's type tag and value
+     *
+     * @param out the buffer to write to
+     * @param key the key
+     * @param encoded the UTF-8 bytes of the key if it is a String, otherwise null
+     */
+    private static void putKey(MappedByteBuffer out, Object key, byte[] encoded) {
+        if (key instanceof Integer) {
+            out.put(INTEGER_KEY);
+            out.putInt((Integer) key);
+        } else if (key instanceof Long) {
+            out.put(LONG_KEY);
+            out.putLong((Long) key);
+        } else if (key instanceof Date) {
+            out.put(DATE_KEY);
+            out.putLong(((Date) key).getTime());
+        } else {
+            out.put(STRING_KEY);
+            out.putInt(encoded.length);
+            out.put(encoded);
+        }
+    }
+
+    /**
+     * Reads a key's type tag and value
+     *
+     * @param in the buffer to read from
+     * @param fileName the name of the snapshot file, for error messages
+     * @return the key
+     * @throws IOException if the type tag is unknown
+     */
+    private static Object getKey(MappedByteBuffer in, String fileName) throws IOException {
+        byte type = in.get();
+        switch (type) {
+            case INTEGER_KEY:
+                return in.getInt();
+            case LONG_KEY:
+                return in.getLong();
+            case DATE_KEY:
+                return new Date(in.getLong());
+            case STRING_KEY:
+                byte[] encoded = new byte[in.getInt()];
+                in.get(encoded);
+                return new String(encoded, StandardCharsets.UTF_8);
+            default:
+                throw new IOException("Unknown key type " + type + " in snapshot: " + fileName);
+        }
+    }
+}
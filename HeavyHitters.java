@@ -0,0 +1,228 @@
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The HeavyHitters class keeps the k most frequent keys of a stream up to date as the
+ * stream goes by, so they can be read at any time without scanning a table. The keys
+ * sit in a min-heap ordered by count, with a map from each key to its heap position.
+ * Counts only ever grow, so a key whose new count does not beat the smallest count in
+ * a full heap cannot be in the heap and is dropped with one comparison; only keys that
+ * enter or stay in the top k touch the heap. A key removed from the stream leaves the
+ * heap, and the slot it frees is taken by the next key offered.
+ *
+ * Counts come either from the caller, such as the exact frequency counts a Hashtable
+ * keeps, or from a CountMinSketch front end, which bounds memory on streams with too
+ * many distinct keys to store. With a sketch the counts are estimates that are never
+ * too low.
+ *
+ * @author Jeremiah Robinson
+ */
+public class HeavyHitters {
+    private final int k;
+    private final Object[] heapKeys;
+    private final long[] heapCounts;
+    private final OpenAddressingMap<Object, Integer> positions;
+    private final CountMinSketch sketch;
+    private int heapSize;
+
+    /**
+     * Constructs a new HeavyHitters that is given each key's count by the caller
+     *
+     * @param k the number of keys to keep
+     * @throws IllegalArgumentException if k is less than 1
+     */
+    public HeavyHitters(int k) {
+        this(k, null);
+    }
+
+    /**
+     * Constructs a new HeavyHitters that counts keys with the given sketch
+     *
+     * @param k the number of keys to keep
+     * @param sketch the sketch to count keys with, or null if the caller supplies counts
+     * @throws IllegalArgumentException if k is less than 1
+     */
+    public HeavyHitters(int k, CountMinSketch sketch) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Number of heavy hitters must be positive: " + k);
+        }
+        this.k = k;
+        this.heapKeys = new Object[k];
+        this.heapCounts = new long[k];
+        this.positions = new LinearProbingMap<>(k);
+        this.sketch = sketch;
+    }
+
+    /**
+     * Counts one occurrence of a key in the sketch and offers the key with its estimate
+     *
+     * @param key the key
+     * @throws IllegalStateException if this HeavyHitters has no sketch
+     */
+    public void add(Object key) {
+        if (sketch == null) {
+            throw new IllegalStateException("Heavy hitters without a sketch are given their counts");
+        }
+        offer(key, sketch.add(key));
+    }
+
+    /**
+     * Offers a key with its current count. The counts offered for a key must never
+     * decrease.
+     *
+     * @param key the key
+     * @param count the number of times the key has been seen
+     */
+    public void offer(Object key, long count) {
+        if (heapSize == k && count <= heapCounts[0]) {
+            // A key in the heap has a count of at least the minimum, so its next count is higher
+            return;
+        }
+        Integer position = positions.get(key);
+        if (position != null) {
+            heapCounts[position] = count;
+            siftDown(position);
+        } else if (heapSize < k) {
+            heapKeys[heapSize] = key;
+            heapCounts[heapSize] = count;
+            positions.put(key, heapSize);
+            siftUp(heapSize++);
+        } else {
+            positions.remove(heapKeys[0]);
+            heapKeys[0] = key;
+            heapCounts[0] = count;
+            positions.put(key, 0);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Drops a key that has left the stream, such as a key deleted from its table. A key
+     * offered again afterwards starts over with the counts offered from then on.
+     *
+     * @param key the key
+     */
+    public void remove(Object key) {
+        Integer position = positions.remove(key);
+        if (position == null) {
+            return;
+        }
+        int last = --heapSize;
+        heapKeys[position] = heapKeys[last];
+        heapCounts[position] = heapCounts[last];
+        heapKeys[last] = null;
+        if (position < last) {
+            positions.put(heapKeys[position], position);
+            siftDown(position);
+            siftUp(position);
+        }
+    }
+
+    /**
+     * Returns the keys kept, most frequent first
+     *
+     * @return the keys and their counts
+     */
+    public List<Map.Entry<Object, Long>> getTop() {
+        List<Map.Entry<Object, Long>> top = new ArrayList<>(heapSize);
+        for (int i = 0; i < heapSize; i++) {
+            top.add(new AbstractMap.SimpleImmutableEntry<>(heapKeys[i], heapCounts[i]));
+        }
+        top.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        return top;
+    }
+
+    /**
+     * Returns the number of keys kept once the stream has that many distinct keys
+     *
+     * @return k
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Returns the sketch keys are counted with
+     *
+     * @return the sketch, or null if the caller supplies counts
+     */
+    public CountMinSketch getSketch() {
+        return sketch;
+    }
+
+    /**
+     * Returns the keys kept, most frequent first, as one line of text
+     *
+     * @return the keys with their counts in parentheses
+     */
+    @Override
+    public String toString() {
+        StringBuilder line = new StringBuilder();
+        for (Map.Entry<Object, Long> entry : getTop()) {
+            if (line.length() > 0) {
+                line.append(", ");
+            }
+            line.append(entry.getKey()).append(" (").append(entry.getValue()).append(')');
+        }
+        return line.toString();
+    }
+
+    /**
+     * Moves an entry towards the root while its count is below its parent's
+     *
+     * @param position the heap position of the entry
+     */
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (heapCounts[parent] <= heapCounts[position]) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    /**
+     * Moves an entry towards the leaves while its count is above a child's
+     *
+     * @param position the heap position of the entry
+     */
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < heapSize && heapCounts[left] < heapCounts[smallest]) {
+                smallest = left;
+            }
+            if (right < heapSize && heapCounts[right] < heapCounts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    /**
+     * Swaps two heap entries and updates their positions
+     *
+     * @param a the heap position of one entry
+     * @param b the heap position of the other
+     */
+    private void swap(int a, int b) {
+        Object key = heapKeys[a];
+        heapKeys[a] = heapKeys[b];
+        heapKeys[b] = key;
+        long count = heapCounts[a];
+        heapCounts[a] = heapCounts[b];
+        heapCounts[b] = count;
+        positions.put(heapKeys[a], a);
+        positions.put(heapKeys[b], b);
+    }
+}
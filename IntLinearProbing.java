@@ -0,0 +1,29 @@
+/**
+ * The IntLinearProbing class extends the IntHashtable class and implements the
+ * linear probing strategy for open addressing on primitive int keys
+ *
+ * @author Jeremiah Robinson
+ */
+public class IntLinearProbing extends IntHashtable {
+
+    /**
+     * Constructs a new IntLinearProbing hashtable with the specified capacity
+     *
+     * @param size the capacity of the hashtable
+     */
+    public IntLinearProbing(int size) {
+        super(size);
+    }
+
+    /**
+     * Probes the hashtable using the linear probing strategy
+     *
+     * @param key the key to be hashed
+     * @param probeNum the probe number
+     * @return the index in the hashtable for the given key and probe number
+     */
+    @Override
+    public int hash(int key, int probeNum) {
+        return positiveMod(h1(key) + probeNum, size);
+    }
+}
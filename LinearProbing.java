@@ -15,15 +15,27 @@ public class LinearProbing extends Hashtable {
         super(size);
     }
 
+    /**
+     * Constructs a new LinearProbing hashtable with the specified capacity that grows
+     * once it would exceed the given load factor
+     *
+     * @param size the initial capacity of the hashtable
+     * @param maxLoadFactor the maximum ratio of keys to capacity, or 1.0 to never grow
+     */
+    public LinearProbing(int size, double maxLoadFactor) {
+        super(size, maxLoadFactor);
+    }
+
     /**
      * Probes the hashtable using the linear probing strategy
      *
      * @param key the key to be hashed
-     * @param i the probe number
+     * @param probeNum the probe number
+     * @param capacity the capacity of the table being probed
      * @return the index in the hashtable for the given key and probe number
      */
     @Override
-    public int hash(Object key, int probeNum) {
-        return positiveMod(h1(key) + probeNum, size);
+    public int hash(Object key, int probeNum, int capacity) {
+        return positiveMod(h1(key, capacity) + probeNum, capacity);
     }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+/**
+ * The LinearProbingMap class extends the OpenAddressingMap class and implements the
+ * linear probing strategy for open addressing
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * @author Jeremiah Robinson
+ */
+public class LinearProbingMap<K, V> extends OpenAddressingMap<K, V> {
+
+    /**
+     * Constructs a new, empty LinearProbingMap
+     */
+    public LinearProbingMap() {
+        this(0);
+    }
+
+    /**
+     * Constructs a new, empty LinearProbingMap that holds the given number of keys
+     * without growing
+     *
+     * @param expectedSize the number of keys the map should hold without growing
+     */
+    public LinearProbingMap(int expectedSize) {
+        this(expectedSize, DEFAULT_MAX_LOAD_FACTOR, HashMixer.IDENTITY);
+    }
+
+    /**
+     * Constructs a new, empty LinearProbingMap
+     *
+     * @param expectedSize the number of keys the map should hold without growing
+     * @param maxLoadFactor the maximum ratio of keys and tombstones to capacity
+     * @param mixer the mixer applied to each key's hashCode()
+     */
+    public LinearProbingMap(int expectedSize, double maxLoadFactor, HashMixer mixer) {
+        super(expectedSize, maxLoadFactor, mixer);
+    }
+
+    /**
+     * Steps through the arrays one slot at a time, the linear probing strategy
+     *
+     * @param hashCode the mixed hash code of the key
+     * @param capacity the capacity of the arrays being probed
+     * @return 1
+     */
+    @Override
+    protected int step(int hashCode, int capacity) {
+        return 1;
+    }
+}
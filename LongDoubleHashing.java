@@ -0,0 +1,39 @@
+/**
+ * The LongDoubleHashing class extends the LongHashtable class and implements the
+ * double hashing strategy for open addressing on primitive long keys
+ *
+ * @author Jeremiah Robinson
+ */
+public class LongDoubleHashing extends LongHashtable {
+
+    /**
+     * Constructs a new LongDoubleHashing hashtable with the specified capacity
+     *
+     * @param size the capacity of the hashtable
+     */
+    public LongDoubleHashing(int size) {
+        super(size);
+    }
+
+    /**
+     * Computes the secondary hash function
+     *
+     * @param key the key to be hashed
+     * @return the result of the secondary hash function
+     */
+    private int h2(long key) {
+        return 1 + positiveMod(Long.hashCode(key), size - 2);
+    }
+
+    /**
+     * Probes the hashtable using the double hashing strategy
+     *
+     * @param key the key to be hashed
+     * @param probeNum the probe number
+     * @return the index in the hashtable for the given key and probe number
+     */
+    @Override
+    public int hash(long key, int probeNum) {
+        return positiveMod(h1(key) + probeNum * h2(key), size);
+    }
+}
@@ -0,0 +1,147 @@
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.util.Date;
+
+/**
+ * The LongHashtable class is an abstract hash table with open addressing that is
+ * specialized for primitive long keys. Keys, frequency counts and probe counts are
+ * kept in parallel primitive arrays, so inserting and searching never box a key
+ * or allocate a HashObject.
+ *
+ * @author Jeremiah Robinson
+ */
+public abstract class LongHashtable {
+    protected long[] keys;
+    protected int[] frequencyCounts;
+    protected int[] probeCounts;
+    protected int size;
+    protected int insertionCount;
+    protected int duplicateCount;
+
+    /**
+     * Constructs a new LongHashtable with the specified capacity
+     *
+     * @param size the capacity of the hashtable
+     */
+    public LongHashtable(int size) {
+        this.size = size;
+        this.keys = new long[size];
+        this.frequencyCounts = new int[size];
+        this.probeCounts = new int[size];
+    }
+
+    /**
+     * Computes the hash value for the given key and probe number
+     *
+     * @param key the key to be hashed
+     * @param probeNum the probe number
+     * @return the index in the hashtable for the given key and probe number
+     */
+    public abstract int hash(long key, int probeNum);
+
+    /**
+     * Computes the primary hash function. Long.hashCode(key) is the same value
+     * Date.hashCode() returns for the same time in milliseconds, so this matches
+     * Hashtable.h1 for Date keys.
+     *
+     * @param key the key to be hashed
+     * @return the result of the primary hash function
+     */
+    protected int h1(long key) {
+        return positiveMod(Long.hashCode(key), size);
+    }
+
+    /**
+     * Inserts the specified key into the hashtable
+     *
+     * @param key the key to be inserted
+     * @return the number of probes required to insert the key, or -1 if the key is a duplicate or the table is full
+     */
+    public int insert(long key) {
+        for (int i = 0; i < size; i++) {
+            int index = hash(key, i);
+            if (probeCounts[index] == 0) {
+                keys[index] = key;
+                frequencyCounts[index] = 1;
+                probeCounts[index] = i + 1;
+                insertionCount += i + 1;
+                return i + 1;
+            } else if (keys[index] == key) {
+                frequencyCounts[index]++;
+                duplicateCount++;
+                return -1; // Indicate duplicate
+            }
+        }
+
+        System.out.println("Table is full, could not insert key: " + key);
+        return -1; // Table is full
+    }
+
+    /**
+     * Searches for the specified key in the hashtable
+     *
+     * @param key the key to be searched for
+     * @return the number of probes required to find the key, or -1 if the key is not found
+     */
+    public int search(long key) {
+        for (int i = 0; i < size; i++) {
+            int index = hash(key, i);
+            if (probeCounts[index] == 0) {
+                return -1; // Key not found
+            } else if (keys[index] == key) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Computes the positive modulus of the given dividend and divisor
+     *
+     * @param dividend the dividend
+     * @param divisor the divisor
+     * @return the positive modulus
+     */
+    protected int positiveMod(int dividend, int divisor) {
+        int remainder = dividend % divisor;
+        if (remainder < 0) {
+            remainder += divisor;
+        }
+        return remainder;
+    }
+
+    /**
+     * Returns the total number of duplicate keys in the hashtable
+     *
+     * @return the total number of duplicate keys
+     */
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /**
+     * Returns the total number of insertions (probes) in the hashtable
+     *
+     * @return the total number of insertions
+     */
+    public int getInsertionCount() {
+        return insertionCount;
+    }
+
+    /**
+     * Dumps the contents of the hashtable to the specified file, using the same
+     * format as Hashtable.dumpToFile, so each key is printed as the Date it stands for
+     *
+     * @param fileName the name of the file to dump the contents to
+     * @throws FileNotFoundException if the file cannot be created or opened
+     */
+    public void dumpToFile(String fileName) throws FileNotFoundException {
+        try (PrintWriter out = new PrintWriter(fileName)) {
+            for (int i = 0; i < size; i++) {
+                if (probeCounts[i] != 0) {
+                    out.println("table[" + i + "]: " + new Date(keys[i]) + " " + frequencyCounts[i] + " " + probeCounts[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * The LongLinearProbing class extends the LongHashtable class and implements the
+ * linear probing strategy for open addressing on primitive long keys
+ *
+ * @author Jeremiah Robinson
+ */
+public class LongLinearProbing extends LongHashtable {
+
+    /**
+     * Constructs a new LongLinearProbing hashtable with the specified capacity
+     *
+     * @param size the capacity of the hashtable
+     */
+    public LongLinearProbing(int size) {
+        super(size);
+    }
+
+    /**
+     * Probes the hashtable using the linear probing strategy
+     *
+     * @param key the key to be hashed
+     * @param probeNum the probe number
+     * @return the index in the hashtable for the given key and probe number
+     */
+    @Override
+    public int hash(long key, int probeNum) {
+        return positiveMod(h1(key) + probeNum, size);
+    }
+}
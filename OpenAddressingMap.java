@@ -0,0 +1,705 @@
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * The OpenAddressingMap class is an abstract Map with open addressing, for the places
+ * where a java.util.HashMap is too heavy. HashMap allocates a node per entry and reaches
+ * a key through the bucket array and then the node. This map keeps entries inline: each
+ * key sits next to its value in one array, and the cached hash codes sit in a parallel
+ * array, like ParallelArrayHashtable. An entry costs three array slots and no object of
+ * its own, a probe only follows the key reference when the cached hash code matches,
+ * and the value is on the same cache line as the key.
+ *
+ * Subclasses supply the step between probes. A lookup reduces the hash code to a home
+ * slot and a step with multiplies and shifts, then advances with an add and a compare,
+ * so no probe divides. A removed key leaves a tombstone, so the probe sequences of
+ * other keys that run through its slot stay intact. Puts reuse tombstones and resizing
+ * drops them. The capacity is always a twin prime. Once keys and tombstones together
+ * would pass the maximum load factor, the map is rehashed at the same capacity if
+ * tombstones make up most of it and otherwise grows to the next twin prime past twice
+ * the capacity.
+ *
+ * Null keys are not supported; null values are.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * @author Jeremiah Robinson
+ */
+public abstract class OpenAddressingMap<K, V> extends AbstractMap<K, V> {
+    /** Maximum ratio of keys and tombstones to capacity used by the shorter constructors */
+    public static final double DEFAULT_MAX_LOAD_FACTOR = 0.75;
+    /** Stands in the key slot of a removed entry */
+    private static final Object TOMBSTONE = new Object();
+
+    protected Object[] slots;
+    protected int[] hashCodes;
+    protected int capacity;
+    protected int numElements;
+    protected int numTombstones;
+    protected final double maxLoadFactor;
+    protected final HashMixer mixer;
+    private int modCount;
+
+    /**
+     * Constructs a new, empty OpenAddressingMap
+     *
+     * @param expectedSize the number of keys the map should hold without growing
+     * @param maxLoadFactor the maximum ratio of keys and tombstones to capacity
+     * @param mixer the mixer applied to each key's hashCode()
+     * @throws IllegalArgumentException if expectedSize is negative or maxLoadFactor is not in (0, 1)
+     */
+    public OpenAddressingMap(int expectedSize, double maxLoadFactor, HashMixer mixer) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        if (!(maxLoadFactor > 0.0 && maxLoadFactor < 1.0)) {
+            throw new IllegalArgumentException("Max load factor must be in (0, 1): " + maxLoadFactor);
+        }
+        this.maxLoadFactor = maxLoadFactor;
+        this.mixer = Objects.requireNonNull(mixer);
+        allocate(TwinPrimeGenerator.nextTwinPrimeAtLeast((int) Math.min(Math.ceil(expectedSize / maxLoadFactor) + 1, Integer.MAX_VALUE - 2)));
+    }
+
+    /**
+     * Returns the distance between consecutive probes of a key. Every slot must be
+     * reachable with it, so it has to be coprime with the capacity.
+     *
+     * @param hashCode the mixed hash code of the key
+     * @param capacity the capacity of the arrays being probed
+     * @return the step, from 1 to capacity - 1
+     */
+    protected abstract int step(int hashCode, int capacity);
+
+    /**
+     * Returns the number of key-value mappings in this map
+     *
+     * @return the number of keys
+     */
+    @Override
+    public int size() {
+        return numElements;
+    }
+
+    /**
+     * Returns the number of entry slots
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of slots holding a tombstone
+     *
+     * @return the number of tombstones
+     */
+    public int getTombstoneCount() {
+        return numTombstones;
+    }
+
+    /**
+     * Returns whether this map holds the given key
+     *
+     * @param key the key to look up
+     * @return true if the key is present
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) != -1;
+    }
+
+    /**
+     * Returns the value of the given key
+     *
+     * @param key the key to look up
+     * @return the value, or null if the key is not present
+     */
+    @Override
+    public V get(Object key) {
+        int index = indexOf(key);
+        return index == -1 ? null : valueAt(index);
+    }
+
+    /**
+     * Returns the value of the given key, or a default if the key is not present
+     *
+     * @param key the key to look up
+     * @param defaultValue the value to return if the key is not present
+     * @return the value, which may be null, or defaultValue
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        int index = indexOf(key);
+        return index == -1 ? defaultValue : valueAt(index);
+    }
+
+    /**
+     * Maps a key to a value, replacing the key's previous value
+     *
+     * @param key the key
+     * @param value the value
+     * @return the previous value, or null if the key was not present
+     * @throws NullPointerException if the key is null
+     */
+    @Override
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("Null keys are not supported");
+        }
+        int hashCode = mixer.mix(key.hashCode());
+        int slot = findSlot(key, hashCode);
+        if (slot >= 0) {
+            V old = valueAt(slot);
+            slots[2 * slot + 1] = value;
+            return old;
+        }
+
+        slot = -slot - 1;
+        if (slots[2 * slot] == null && numElements + numTombstones + 1 > maxLoadFactor * capacity) {
+            resize();
+            slot = -findSlot(key, hashCode) - 1;
+        }
+        if (slots[2 * slot] == TOMBSTONE) {
+            numTombstones--;
+        }
+        slots[2 * slot] = key;
+        slots[2 * slot + 1] = value;
+        hashCodes[slot] = hashCode;
+        numElements++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Removes a key and its value, leaving a tombstone in its slot
+     *
+     * @param key the key to remove
+     * @return the value the key had, or null if it was not present
+     */
+    @Override
+    public V remove(Object key) {
+        int index = indexOf(key);
+        if (index == -1) {
+            return null;
+        }
+        V old = valueAt(index);
+        removeAt(index);
+        return old;
+    }
+
+    /**
+     * Removes every key. The capacity is kept.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            slots[2 * i] = null;
+            slots[2 * i + 1] = null;
+            hashCodes[i] = 0;
+        }
+        numElements = 0;
+        numTombstones = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns whether some key maps to the given value
+     *
+     * @param value the value to look for
+     * @return true if the value is present
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < capacity; i++) {
+            if (isLive(i) && Objects.equals(slots[2 * i + 1], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calls the action for every key and value, in slot order, without allocating an
+     * entry for each of them
+     *
+     * @param action the action to call
+     * @throws ConcurrentModificationException if the action adds or removes keys
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < capacity; i++) {
+            if (isLive(i)) {
+                action.accept((K) slots[2 * i], valueAt(i));
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a view of the entries of this map. Its iterator visits the entries in
+     * slot order and supports remove().
+     *
+     * @return the entry set
+     */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * Returns a view of the keys of this map, iterated in slot order
+     *
+     * @return the key set
+     */
+    @Override
+    public Set<K> keySet() {
+        return new KeySet();
+    }
+
+    /**
+     * Returns a view of the values of this map, iterated in slot order
+     *
+     * @return the values
+     */
+    @Override
+    public Collection<V> values() {
+        return new Values();
+    }
+
+    /**
+     * Looks up the slot of a key
+     *
+     * @param key the key to look up
+     * @return the slot holding the key, or -1 if it is not present
+     */
+    protected int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        int hashCode = mixer.mix(key.hashCode());
+        int index = home(hashCode, capacity);
+        int step = step(hashCode, capacity);
+        for (int i = 0; i < capacity; i++) {
+            Object k = slots[2 * index];
+            if (k == null) {
+                return -1;
+            } else if (hashCodes[index] == hashCode && k != TOMBSTONE && (k == key || k.equals(key))) {
+                return index;
+            }
+            index = next(index, step, capacity);
+        }
+        return -1;
+    }
+
+    /**
+     * Probes for a key, remembering the first tombstone passed on the way
+     *
+     * @param key the key to look up
+     * @param hashCode the mixed hash code of the key
+     * @return the slot holding the key, or -(slot + 1) for the slot a new key should go
+     *         into: the first tombstone of its probe sequence, or else the empty slot
+     *         that ended it
+     */
+    private int findSlot(Object key, int hashCode) {
+        int firstTombstone = -1;
+        int index = home(hashCode, capacity);
+        int step = step(hashCode, capacity);
+        for (int i = 0; i < capacity; i++) {
+            Object k = slots[2 * index];
+            if (k == null) {
+                return -(firstTombstone == -1 ? index : firstTombstone) - 1;
+            } else if (k == TOMBSTONE) {
+                if (firstTombstone == -1) {
+                    firstTombstone = index;
+                }
+            } else if (hashCodes[index] == hashCode && (k == key || k.equals(key))) {
+                return index;
+            }
+            index = next(index, step, capacity);
+        }
+        if (firstTombstone != -1) {
+            return -firstTombstone - 1;
+        }
+        throw new IllegalStateException("No free slot for key: " + key);
+    }
+
+    /**
+     * Makes room for one more key: rehashes at the same capacity if dropping the
+     * tombstones leaves the map at most half as full as the maximum load factor allows,
+     * and otherwise grows to the next twin prime past twice the capacity
+     */
+    private void resize() {
+        if ((numElements + 1) * 2 <= maxLoadFactor * capacity) {
+            rehash(capacity);
+        } else {
+            rehash(Hashtable.nextCapacity(capacity));
+        }
+    }
+
+    /**
+     * Moves every key into new arrays of the given capacity, dropping the tombstones.
+     * Cached hash codes are reused, so no key's hashCode() is called.
+     *
+     * @param newCapacity the capacity of the new arrays
+     */
+    private void rehash(int newCapacity) {
+        Object[] oldSlots = slots;
+        int[] oldHashCodes = hashCodes;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            Object key = oldSlots[2 * i];
+            if (key != null && key != TOMBSTONE) {
+                int hashCode = oldHashCodes[i];
+                int index = home(hashCode, newCapacity);
+                int step = step(hashCode, newCapacity);
+                while (slots[2 * index] != null) {
+                    index = next(index, step, newCapacity);
+                }
+                slots[2 * index] = key;
+                slots[2 * index + 1] = oldSlots[2 * i + 1];
+                hashCodes[index] = hashCode;
+            }
+        }
+        numTombstones = 0;
+        modCount++;
+    }
+
+    /**
+     * Replaces the arrays with empty ones of the given capacity
+     *
+     * @param newCapacity the capacity of the new arrays
+     */
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        slots = new Object[2 * newCapacity];
+        hashCodes = new int[newCapacity];
+    }
+
+    /**
+     * Replaces the key in a slot with a tombstone
+     *
+     * @param index the slot of a present key
+     */
+    private void removeAt(int index) {
+        slots[2 * index] = TOMBSTONE;
+        slots[2 * index + 1] = null;
+        hashCodes[index] = 0;
+        numElements--;
+        numTombstones++;
+        modCount++;
+    }
+
+    /**
+     * Returns whether a slot holds a key
+     *
+     * @param index the slot
+     * @return true if the slot is neither empty nor a tombstone
+     */
+    private boolean isLive(int index) {
+        return slots[2 * index] != null && slots[2 * index] != TOMBSTONE;
+    }
+
+    /**
+     * Returns the value in a slot
+     *
+     * @param index the slot
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) slots[2 * index + 1];
+    }
+
+    /**
+     * Returns the home slot of a key: the high bits of its hash code scrambled by the
+     * golden ratio multiplier, scaled to the capacity
+     *
+     * @param hashCode the mixed hash code of the key
+     * @param capacity the capacity of the arrays being probed
+     * @return the first slot of the key's probe sequence
+     */
+    private static int home(int hashCode, int capacity) {
+        return reduce(hashCode * 0x9e3779b9, capacity);
+    }
+
+    /**
+     * Maps a 32-bit hash uniformly onto [0, range) with a multiply and a shift instead of
+     * a division (Lemire's multiply-shift range reduction)
+     *
+     * @param hash the hash, whose high bits should be well mixed
+     * @param range the size of the range
+     * @return a value from 0 to range - 1
+     */
+    protected static int reduce(int hash, int range) {
+        return (int) (((hash & 0xffffffffL) * range) >>> 32);
+    }
+
+    /**
+     * Advances a probe by one step, wrapping around the end of the arrays
+     *
+     * @param index the current slot
+     * @param step the step of the key
+     * @param capacity the capacity of the arrays being probed
+     * @return the next slot
+     */
+    private static int next(int index, int step, int capacity) {
+        // index + step can overflow an int for capacities above 2^30
+        return index >= capacity - step ? index - (capacity - step) : index + step;
+    }
+
+    /**
+     * Iterator over the live slots of the arrays, in slot order
+     */
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        private int next = advance(0);
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        /**
+         * Returns the element for a live slot
+         *
+         * @param index the slot
+         * @return the element
+         */
+        abstract T at(int index);
+
+        /**
+         * Finds the first live slot at or after the given one
+         *
+         * @param from the slot to start at
+         * @return the live slot, or capacity if there is none
+         */
+        private int advance(int from) {
+            while (from < capacity && !isLive(from)) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < capacity;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= capacity) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = advance(next + 1);
+            return at(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last == -1) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * Entry for one slot. It reads and writes the value in the slot array for as long as
+     * the key is still in that slot, and looks the key up again after a resize.
+     */
+    private final class SlotEntry implements Map.Entry<K, V> {
+        private final K key;
+        private final Object[] slotArray;
+        private final int index;
+
+        SlotEntry(int index) {
+            this.index = index;
+            this.slotArray = slots;
+            @SuppressWarnings("unchecked")
+            K key = (K) slots[2 * index];
+            this.key = key;
+        }
+
+        /**
+         * Returns the current slot of the key
+         *
+         * @return the slot, or -1 if the key was removed
+         */
+        private int slot() {
+            return slotArray == slots && slots[2 * index] == key ? index : indexOf(key);
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            int slot = slot();
+            return slot == -1 ? null : valueAt(slot);
+        }
+
+        @Override
+        public V setValue(V value) {
+            int slot = slot();
+            if (slot == -1) {
+                throw new IllegalStateException("Entry was removed: " + key);
+            }
+            V old = valueAt(slot);
+            slots[2 * slot + 1] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry && key.equals(((Map.Entry<?, ?>) o).getKey())
+                    && Objects.equals(getValue(), ((Map.Entry<?, ?>) o).getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+    /**
+     * View of the entries of the map
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new SlotIterator<Map.Entry<K, V>>() {
+                @Override
+                Map.Entry<K, V> at(int index) {
+                    return new SlotEntry(index);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return numElements;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            int index = indexOf(entry.getKey());
+            return index != -1 && Objects.equals(slots[2 * index + 1], entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            removeAt(indexOf(((Map.Entry<?, ?>) o).getKey()));
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            OpenAddressingMap.this.clear();
+        }
+    }
+
+    /**
+     * View of the keys of the map
+     */
+    private final class KeySet extends AbstractSet<K> {
+        @Override
+        public Iterator<K> iterator() {
+            return new SlotIterator<K>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                K at(int index) {
+                    return (K) slots[2 * index];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return numElements;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            int index = indexOf(o);
+            if (index == -1) {
+                return false;
+            }
+            removeAt(index);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            OpenAddressingMap.this.clear();
+        }
+    }
+
+    /**
+     * View of the values of the map
+     */
+    private final class Values extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            return new SlotIterator<V>() {
+                @Override
+                V at(int index) {
+                    return valueAt(index);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return numElements;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+            OpenAddressingMap.this.clear();
+        }
+    }
+}
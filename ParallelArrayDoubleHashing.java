@@ -0,0 +1,39 @@
+/**
+ * The ParallelArrayDoubleHashing class extends the ParallelArrayHashtable class and
+ * implements the double hashing strategy for open addressing in hash tables
+ *
+ * @author Jeremiah Robinson
+ */
+public class ParallelArrayDoubleHashing extends ParallelArrayHashtable {
+
+    /**
+     * Constructs a new ParallelArrayDoubleHashing hashtable with the specified capacity
+     *
+     * @param size the capacity of the hashtable
+     */
+    public ParallelArrayDoubleHashing(int size) {
+        super(size);
+    }
+
+    /**
+     * Computes the secondary hash function
+     *
+     * @param hashCode the hash code of the key
+     * @return the result of the secondary hash function
+     */
+    private int h2(int hashCode) {
+        return 1 + positiveMod(hashCode, size - 2);
+    }
+
+    /**
+     * Probes the hashtable using the double hashing strategy
+     *
+     * @param hashCode the hash code of the key
+     * @param probeNum the probe number
+     * @return the index in the hashtable for the given hash code and probe number
+     */
+    @Override
+    public int hash(int hashCode, int probeNum) {
+        return positiveMod(h1(hashCode) + probeNum * h2(hashCode), size);
+    }
+}
@@ -0,0 +1,152 @@
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+
+/**
+ * The ParallelArrayHashtable class is an abstract hash table with open addressing that
+ * stores its entries as a struct of arrays instead of one HashObject per slot. Keys,
+ * cached hash codes, frequency counts and probe counts live in parallel arrays, so a
+ * probe compares the cached hash code in contiguous memory and only follows the key
+ * reference when the hash codes match.
+ *
+ * @author Jeremiah Robinson
+ */
+public abstract class ParallelArrayHashtable {
+    protected Object[] keys;
+    protected int[] hashCodes;
+    protected int[] frequencyCounts;
+    protected int[] probeCounts;
+    protected int size;
+    protected int insertionCount;
+    protected int duplicateCount;
+
+    /**
+     * Constructs a new ParallelArrayHashtable with the specified capacity
+     *
+     * @param size the capacity of the hashtable
+     */
+    public ParallelArrayHashtable(int size) {
+        this.size = size;
+        this.keys = new Object[size];
+        this.hashCodes = new int[size];
+        this.frequencyCounts = new int[size];
+        this.probeCounts = new int[size];
+    }
+
+    /**
+     * Computes the hash value for the given key hash code and probe number
+     *
+     * @param hashCode the hash code of the key, as returned by key.hashCode()
+     * @param probeNum the probe number
+     * @return the index in the hashtable for the given hash code and probe number
+     */
+    public abstract int hash(int hashCode, int probeNum);
+
+    /**
+     * Computes the primary hash function
+     *
+     * @param hashCode the hash code of the key
+     * @return the result of the primary hash function
+     */
+    protected int h1(int hashCode) {
+        return positiveMod(hashCode, size);
+    }
+
+    /**
+     * Inserts the specified key into the hashtable
+     *
+     * @param key the key to be inserted
+     * @return the number of probes required to insert the key, or -1 if the key is a duplicate or the table is full
+     */
+    public int insert(Object key) {
+        int hashCode = key.hashCode();
+
+        for (int i = 0; i < size; i++) {
+            int index = hash(hashCode, i);
+            if (keys[index] == null) {
+                keys[index] = key;
+                hashCodes[index] = hashCode;
+                frequencyCounts[index] = 1;
+                probeCounts[index] = i + 1;
+                insertionCount += i + 1;
+                return i + 1;
+            } else if (hashCodes[index] == hashCode && keys[index].equals(key)) {
+                frequencyCounts[index]++;
+                duplicateCount++;
+                return -1; // Indicate duplicate
+            }
+        }
+
+        System.out.println("Table is full, could not insert key: " + key);
+        return -1; // Table is full
+    }
+
+    /**
+     * Searches for the specified key in the hashtable
+     *
+     * @param key the key to be searched for
+     * @return the number of probes required to find the key, or -1 if the key is not found
+     */
+    public int search(Object key) {
+        int hashCode = key.hashCode();
+
+        for (int i = 0; i < size; i++) {
+            int index = hash(hashCode, i);
+            if (keys[index] == null) {
+                return -1; // Key not found
+            } else if (hashCodes[index] == hashCode && keys[index].equals(key)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Computes the positive modulus of the given dividend and divisor
+     *
+     * @param dividend the dividend
+     * @param divisor the divisor
+     * @return the positive modulus
+     */
+    protected int positiveMod(int dividend, int divisor) {
+        int remainder = dividend % divisor;
+        if (remainder < 0) {
+            remainder += divisor;
+        }
+        return remainder;
+    }
+
+    /**
+     * Returns the total number of duplicate keys in the hashtable
+     *
+     * @return the total number of duplicate keys
+     */
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /**
+     * Returns the total number of insertions (probes) in the hashtable
+     *
+     * @return the total number of insertions
+     */
+    public int getInsertionCount() {
+        return insertionCount;
+    }
+
+    /**
+     * Dumps the contents of the hashtable to the specified file, using the same
+     * format as Hashtable.dumpToFile
+     *
+     * @param fileName the name of the file to dump the contents to
+     * @throws FileNotFoundException if the file cannot be created or opened
+     */
+    public void dumpToFile(String fileName) throws FileNotFoundException {
+        try (PrintWriter out = new PrintWriter(fileName)) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] != null) {
+                    out.println("table[" + i + "]: " + keys[i] + " " + frequencyCounts[i] + " " + probeCounts[i]);
+                }
+            }
+        }
+    }
+}
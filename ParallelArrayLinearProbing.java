@@ -0,0 +1,29 @@
+/**
+ * The ParallelArrayLinearProbing class extends the ParallelArrayHashtable class and
+ * implements the linear probing strategy for open addressing in hash tables
+ *
+ * @author Jeremiah Robinson
+ */
+public class ParallelArrayLinearProbing extends ParallelArrayHashtable {
+
+    /**
+     * Constructs a new ParallelArrayLinearProbing hashtable with the specified capacity
+     *
+     * @param size the capacity of the hashtable
+     */
+    public ParallelArrayLinearProbing(int size) {
+        super(size);
+    }
+
+    /**
+     * Probes the hashtable using the linear probing strategy
+     *
+     * @param hashCode the hash code of the key
+     * @param probeNum the probe number
+     * @return the index in the hashtable for the given hash code and probe number
+     */
+    @Override
+    public int hash(int hashCode, int probeNum) {
+        return positiveMod(h1(hashCode) + probeNum, size);
+    }
+}
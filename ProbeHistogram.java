@@ -0,0 +1,97 @@
+import java.util.Arrays;
+
+/**
+ * The ProbeHistogram class counts how often each length was recorded, for probe
+ * sequence lengths and cluster lengths. Lengths are small non-negative integers, so
+ * it keeps one exact count per length instead of buckets, which makes recording a
+ * single array increment and every percentile exact.
+ *
+ * @author Jeremiah Robinson
+ */
+public class ProbeHistogram {
+    private long[] counts = new long[64];
+    private long totalCount;
+    private long totalLength;
+    private int maxLength;
+
+    /**
+     * Records one occurrence of a length
+     *
+     * @param length the length, at least 0
+     */
+    public void record(int length) {
+        if (length >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(length + 1, 2 * counts.length));
+        }
+        counts[length]++;
+        totalCount++;
+        totalLength += length;
+        maxLength = Math.max(maxLength, length);
+    }
+
+    /**
+     * Returns the number of recorded lengths
+     *
+     * @return the number of recorded lengths
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the number of times a length was recorded
+     *
+     * @param length the length
+     * @return the number of times it was recorded
+     */
+    public long getCount(int length) {
+        return length >= 0 && length < counts.length ? counts[length] : 0;
+    }
+
+    /**
+     * Returns the mean of the recorded lengths
+     *
+     * @return the mean, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) totalLength / totalCount;
+    }
+
+    /**
+     * Returns the largest recorded length
+     *
+     * @return the largest length, or 0 if nothing was recorded
+     */
+    public int getMax() {
+        return maxLength;
+    }
+
+    /**
+     * Returns the smallest recorded length that at least the given fraction of the
+     * recorded lengths do not exceed
+     *
+     * @param fraction the fraction, in (0, 1], for example 0.99 for the 99th percentile
+     * @return the length at that percentile, or 0 if nothing was recorded
+     */
+    public int getPercentile(double fraction) {
+        long rank = (long) Math.ceil(fraction * totalCount);
+        long seen = 0;
+        for (int length = 0; length <= maxLength; length++) {
+            seen += counts[length];
+            if (seen >= rank && seen > 0) {
+                return length;
+            }
+        }
+        return maxLength;
+    }
+
+    /**
+     * Returns the percentiles of the histogram as one line of text
+     *
+     * @return the p50, p90, p99 and max lengths
+     */
+    @Override
+    public String toString() {
+        return "p50 = " + getPercentile(0.50) + ", p90 = " + getPercentile(0.90) + ", p99 = " + getPercentile(0.99) + ", max = " + getMax();
+    }
+}
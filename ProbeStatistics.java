@@ -0,0 +1,163 @@
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * The ProbeStatistics class collects per-operation instrumentation for a hash table:
+ * histograms of the probe lengths of inserts, successful searches and failed searches,
+ * and the number of key comparisons (equals() calls) they made. A table only records
+ * into it once statistics are enabled, so an uninstrumented table pays one null check
+ * per operation.
+ *
+ * The statistics can be saved as CSV, one row per (metric, length) pair, or as JSON
+ * with the percentiles and histogram of each metric, together with the cluster lengths
+ * of the table they were taken from.
+ *
+ * @author Jeremiah Robinson
+ */
+public class ProbeStatistics {
+    private final ProbeHistogram insertProbes = new ProbeHistogram();
+    private final ProbeHistogram searchHitProbes = new ProbeHistogram();
+    private final ProbeHistogram searchMissProbes = new ProbeHistogram();
+    private long keyComparisonCount;
+
+    /**
+     * Records one insert, whether it added a key, found a duplicate or found the table full
+     *
+     * @param probes the number of slots the insert looked at
+     * @param keyComparisons the number of stored keys it compared the key with
+     */
+    public void recordInsert(int probes, int keyComparisons) {
+        insertProbes.record(probes);
+        keyComparisonCount += keyComparisons;
+    }
+
+    /**
+     * Records one search
+     *
+     * @param probes the number of slots the search looked at
+     * @param keyComparisons the number of stored keys it compared the key with
+     * @param found whether the key was found
+     */
+    public void recordSearch(int probes, int keyComparisons, boolean found) {
+        (found ? searchHitProbes : searchMissProbes).record(probes);
+        keyComparisonCount += keyComparisons;
+    }
+
+    /**
+     * Returns the histogram of insert probe lengths
+     *
+     * @return the insert probe lengths
+     */
+    public ProbeHistogram getInsertProbes() {
+        return insertProbes;
+    }
+
+    /**
+     * Returns the histogram of probe lengths of searches that found their key
+     *
+     * @return the successful search probe lengths
+     */
+    public ProbeHistogram getSearchHitProbes() {
+        return searchHitProbes;
+    }
+
+    /**
+     * Returns the histogram of probe lengths of searches that did not find their key
+     *
+     * @return the failed search probe lengths
+     */
+    public ProbeHistogram getSearchMissProbes() {
+        return searchMissProbes;
+    }
+
+    /**
+     * Returns the total number of key comparisons made by recorded operations
+     *
+     * @return the number of key comparisons
+     */
+    public long getKeyComparisonCount() {
+        return keyComparisonCount;
+    }
+
+    /**
+     * Saves the statistics as CSV with the columns metric, length and count, followed by
+     * one row with the number of key comparisons
+     *
+     * @param fileName the name of the CSV file
+     * @param clusters the cluster lengths of the table
+     * @throws FileNotFoundException if the file cannot be created or opened
+     */
+    public void saveCsv(String fileName, ProbeHistogram clusters) throws FileNotFoundException {
+        try (PrintWriter out = new PrintWriter(fileName)) {
+            out.println("metric,length,count");
+            writeCsvRows(out, "insert", insertProbes);
+            writeCsvRows(out, "search-hit", searchHitProbes);
+            writeCsvRows(out, "search-miss", searchMissProbes);
+            writeCsvRows(out, "cluster", clusters);
+            out.println("key-comparisons,," + keyComparisonCount);
+        }
+    }
+
+    /**
+     * Saves the statistics as a JSON object with the count, mean, percentiles and
+     * histogram of each metric and the number of key comparisons
+     *
+     * @param fileName the name of the JSON file
+     * @param clusters the cluster lengths of the table
+     * @throws FileNotFoundException if the file cannot be created or opened
+     */
+    public void saveJson(String fileName, ProbeHistogram clusters) throws FileNotFoundException {
+        try (PrintWriter out = new PrintWriter(fileName)) {
+            out.println("{");
+            out.println("  \"insert\": " + toJson(insertProbes) + ",");
+            out.println("  \"searchHit\": " + toJson(searchHitProbes) + ",");
+            out.println("  \"searchMiss\": " + toJson(searchMissProbes) + ",");
+            out.println("  \"cluster\": " + toJson(clusters) + ",");
+            out.println("  \"keyComparisons\": " + keyComparisonCount);
+            out.println("}");
+        }
+    }
+
+    /**
+     * Writes one CSV row for every length recorded in a histogram
+     *
+     * @param out the writer to write to
+     * @param metric the name of the metric
+     * @param histogram the histogram
+     */
+    private static void writeCsvRows(PrintWriter out, String metric, ProbeHistogram histogram) {
+        for (int length = 0; length <= histogram.getMax(); length++) {
+            long count = histogram.getCount(length);
+            if (count > 0) {
+                out.println(metric + "," + length + "," + count);
+            }
+        }
+    }
+
+    /**
+     * Formats a histogram as a JSON object
+     *
+     * @param histogram the histogram
+     * @return the JSON object on one line
+     */
+    private static String toJson(ProbeHistogram histogram) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"count\": ").append(histogram.getCount())
+            .append(", \"mean\": ").append(String.format(Locale.ROOT, "%.4f", histogram.getMean()))
+            .append(", \"p50\": ").append(histogram.getPercentile(0.50))
+            .append(", \"p90\": ").append(histogram.getPercentile(0.90))
+            .append(", \"p99\": ").append(histogram.getPercentile(0.99))
+            .append(", \"max\": ").append(histogram.getMax())
+            .append(", \"histogram\": {");
+        String separator = "";
+        for (int length = 0; length <= histogram.getMax(); length++) {
+            long count = histogram.getCount(length);
+            if (count > 0) {
+                json.append(separator).append('"').append(length).append("\": ").append(count);
+                separator = ", ";
+            }
+        }
+        return json.append("}}").toString();
+    }
+}
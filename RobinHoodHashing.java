@@ -0,0 +1,238 @@
+/**
+ * The RobinHoodHashing class extends the Hashtable class and implements Robin Hood
+ * hashing on top of linear probing. While probing for a free slot, an entry that is
+ * further from its home slot takes the place of one that is closer to its own, which
+ * keeps probe lengths even and lets a search stop as soon as it passes an entry that
+ * is closer to home than the key would be. Deleted keys are removed by shifting the
+ * rest of their cluster back one slot, so no tombstones are needed.
+ *
+ * Each entry's probe count is its distance from its home slot plus one, and it is kept
+ * up to date as entries are displaced and shifted.
+ *
+ * @author Jeremiah Robinson
+ */
+public class RobinHoodHashing extends Hashtable {
+
+    /**
+     * Constructs a new RobinHoodHashing hashtable with the specified capacity
+     *
+     * @param size the capacity of the hashtable
+     */
+    public RobinHoodHashing(int size) {
+        super(size);
+    }
+
+    /**
+     * Constructs a new RobinHoodHashing hashtable with the specified capacity that grows
+     * once it would exceed the given load factor
+     *
+     * @param size the initial capacity of the hashtable
+     * @param maxLoadFactor the maximum ratio of keys to capacity, or 1.0 to never grow
+     */
+    public RobinHoodHashing(int size, double maxLoadFactor) {
+        super(size, maxLoadFactor);
+    }
+
+    /**
+     * Probes the hashtable using the linear probing strategy
+     *
+     * @param key the key to be hashed
+     * @param probeNum the probe number
+     * @param capacity the capacity of the table being probed
+     * @return the index in the hashtable for the given key and probe number
+     */
+    @Override
+    public int hash(Object key, int probeNum, int capacity) {
+        return positiveMod(h1(key, capacity) + probeNum, capacity);
+    }
+
+    /**
+     * Robin Hood moves entries on every insert, so it only supports rehashing all at once
+     *
+     * @param slotsPerOperation must be 0
+     * @throws UnsupportedOperationException if slotsPerOperation is not 0
+     */
+    @Override
+    public void setIncrementalResize(int slotsPerOperation) {
+        if (slotsPerOperation != 0) {
+            throw new UnsupportedOperationException("Robin Hood hashing does not support incremental resizing");
+        }
+    }
+
+    /**
+     * Inserts the specified key into the hashtable
+     *
+     * @param key the key to be inserted
+     * @return the number of probes required to insert the key, or -1 if the key is a duplicate or the table is full
+     */
+    @Override
+    public int insert(Object key) {
+        int probes = size;
+        int keyComparisons = size;
+        for (int i = 0; i < size; i++) {
+            HashObject obj = table[hash(key, i)];
+            if (obj == null || obj.getProbeCount() - 1 < i) {
+                // The key would have displaced this entry, so it is not in the table
+                if (numElements == size) {
+                    probes = i + 1;
+                    keyComparisons = i;
+                    break;
+                }
+                if (numElements + 1 > maxLoadFactor * size) {
+                    grow();
+                    return insert(key);
+                }
+                HashObject added = new HashObject(key);
+                int probeCount = place(added);
+                numElements++;
+                insertionCount += probeCount;
+                recordInsert(i + 1, i);
+                recordFrequency(added);
+                return probeCount;
+            } else if (obj.getKey().equals(key)) {
+                obj.incrementFrequencyCount();
+                recordFrequency(obj);
+                duplicateCount++;
+                recordInsert(i + 1, i + 1);
+                return -1; // Indicate duplicate
+            }
+        }
+
+        recordInsert(probes, keyComparisons);
+        System.out.println("Table is full, could not insert key: " + key);
+        return -1; // Table is full
+    }
+
+    /**
+     * Places an entry that is known not to be in the table, swapping it with any entry
+     * on the way that is closer to its home slot and carrying that entry on instead.
+     * The probe counts of displaced entries are updated and accounted for here.
+     *
+     * @param obj the entry to be placed
+     * @return the number of probes required to place the entry
+     */
+    @Override
+    protected int place(HashObject obj) {
+        HashObject carried = obj;
+        int carriedOldProbeCount = 0;
+        int distance = 0;
+        int placedProbeCount = -1;
+        int index = hash(obj.getKey(), 0);
+
+        while (true) {
+            HashObject resident = table[index];
+            if (resident == null || resident.getProbeCount() - 1 < distance) {
+                table[index] = carried;
+                carried.setProbeCount(distance + 1);
+                if (carried == obj) {
+                    placedProbeCount = distance + 1;
+                } else {
+                    insertionCount += distance + 1 - carriedOldProbeCount;
+                }
+                if (resident == null) {
+                    return placedProbeCount;
+                }
+                carried = resident;
+                carriedOldProbeCount = resident.getProbeCount();
+                distance = carriedOldProbeCount - 1;
+            }
+            index = index + 1 == size ? 0 : index + 1;
+            distance++;
+        }
+    }
+
+    /**
+     * Searches for the specified key in the hashtable, stopping at the first entry that
+     * is closer to its home slot than the key would be
+     *
+     * @param key the key to be searched for
+     * @return the number of probes required to find the key, or -1 if the key is not found
+     */
+    @Override
+    public int search(Object key) {
+        if (filterRejects(key)) {
+            return -1; // Key not found
+        }
+        for (int i = 0; i < size; i++) {
+            HashObject obj = table[hash(key, i)];
+            if (obj == null || obj.getProbeCount() - 1 < i) {
+                recordSearch(i + 1, i, false);
+                return -1; // Key not found
+            } else if (obj.getKey().equals(key)) {
+                recordSearch(i + 1, i + 1, true);
+                return i + 1;
+            }
+        }
+        recordSearch(size, size, false);
+        return -1;
+    }
+
+    /**
+     * Inserts the specified keys one at a time, since an insert can displace entries out of
+     * home slots that later keys of a batch have already read
+     *
+     * @param keys the keys to be inserted
+     * @return for each key, the number of probes required to insert it, or -1 if it was a duplicate or the table was full
+     */
+    @Override
+    public int[] insertAll(Object[] keys) {
+        return insertEach(keys);
+    }
+
+    /**
+     * Searches for the specified keys one at a time, since a search stops early at an entry
+     * that is closer to its home slot than the key would be, which the batched search in
+     * Hashtable does not know to do
+     *
+     * @param keys the keys to be searched for
+     * @return for each key, the number of probes required to find it, or -1 if it was not found
+     */
+    @Override
+    public int[] searchAll(Object[] keys) {
+        return searchEach(keys);
+    }
+
+    /**
+     * Deletes the specified key from the hashtable, then shifts the entries after it
+     * back one slot until reaching an empty slot or an entry already in its home slot
+     *
+     * @param key the key to be deleted
+     * @return the number of probes required to find the key, or -1 if the key is not found
+     */
+    public int delete(Object key) {
+        for (int i = 0; i < size; i++) {
+            int index = hash(key, i);
+            HashObject obj = table[index];
+            if (obj == null || obj.getProbeCount() - 1 < i) {
+                return -1; // Key not found
+            } else if (obj.getKey().equals(key)) {
+                numElements--;
+                insertionCount -= obj.getProbeCount();
+                duplicateCount -= obj.getFrequencyCount() - 1;
+                recordDeletion(obj);
+                shiftBack(index);
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Fills the hole at the given index by moving each following entry of the
+     * cluster back one slot, one probe closer to its home slot
+     *
+     * @param hole the index of the slot that was emptied
+     */
+    private void shiftBack(int hole) {
+        int next = hole + 1 == size ? 0 : hole + 1;
+        while (table[next] != null && table[next].getProbeCount() > 1) {
+            HashObject moved = table[next];
+            moved.setProbeCount(moved.getProbeCount() - 1);
+            insertionCount--;
+            table[hole] = moved;
+            hole = next;
+            next = next + 1 == size ? 0 : next + 1;
+        }
+        table[hole] = null;
+    }
+}
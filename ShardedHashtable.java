@@ -0,0 +1,366 @@
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntFunction;
+
+/**
+ * The ShardedHashtable class splits keys across several independent Hashtable shards by
+ * the high bits of their hash codes, and gives each shard a worker thread of its own.
+ * Inserts are collected per shard into batches and handed to the shard's worker through
+ * a bounded queue, so every shard is only ever touched by one thread and needs no locks
+ * or compare-and-set, and shards grow independently of each other.
+ *
+ * Inserts are asynchronous: insert() returns as soon as the key is queued. flush() waits
+ * until every worker has inserted every key queued before it, after which the counts,
+ * searches and dumps see all of them. Searches flush first and then run on the calling
+ * thread, while the workers are idle.
+ *
+ * @author Jeremiah Robinson
+ */
+public class ShardedHashtable implements AutoCloseable {
+    /** Number of keys handed to a worker at a time */
+    static final int BATCH_SIZE = 256;
+    /** Number of batches that can wait in a worker's queue before insert() blocks */
+    static final int QUEUE_BATCHES = 16;
+
+    /**
+     * A batch of keys for one shard. A batch with a latch is the last one of a flush,
+     * and its worker counts the latch down once it is inserted.
+     */
+    private static class Batch {
+        final Object[] keys;
+        final int count;
+        final CountDownLatch flushed;
+
+        Batch(Object[] keys, int count, CountDownLatch flushed) {
+            this.keys = keys;
+            this.count = count;
+            this.flushed = flushed;
+        }
+    }
+
+    private final Hashtable[] shards;
+    private final BlockingQueue<Batch>[] queues;
+    private final Thread[] workers;
+    private final Object[][] pending;
+    private final int[] pendingCounts;
+    private volatile RuntimeException failure;
+    private boolean dirty;
+    private boolean closed;
+
+    /**
+     * Constructs a new ShardedHashtable and starts a worker thread for each shard
+     *
+     * @param numShards the number of shards
+     * @param newShard builds the table of each shard, given its number
+     * @throws IllegalArgumentException if numShards is less than 1
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ShardedHashtable(int numShards, IntFunction<Hashtable> newShard) {
+        if (numShards < 1) {
+            throw new IllegalArgumentException("Number of shards must be positive: " + numShards);
+        }
+        shards = new Hashtable[numShards];
+        queues = new BlockingQueue[numShards];
+        workers = new Thread[numShards];
+        pending = new Object[numShards][BATCH_SIZE];
+        pendingCounts = new int[numShards];
+        for (int i = 0; i < numShards; i++) {
+            shards[i] = newShard.apply(i);
+            queues[i] = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+            int shard = i;
+            workers[i] = new Thread(() -> work(shard), "shard-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Returns the shard a key belongs to. The hash code is spread with a Fibonacci
+     * multiply and its high bits pick the shard, so the choice is independent of the
+     * low bits the shards reduce hash codes with.
+     *
+     * @param key the key
+     * @return the number of the shard
+     */
+    public int shardOf(Object key) {
+        int hash = key.hashCode() * 0x9e3779b9;
+        return (int) (((hash & 0xffffffffL) * shards.length) >>> 32);
+    }
+
+    /**
+     * Queues a key for insertion into its shard. Blocks while the shard's queue is full.
+     *
+     * @param key the key to be inserted
+     * @throws IllegalStateException if the table is closed
+     * @throws RuntimeException if a worker failed to insert an earlier key
+     */
+    public void insert(Object key) {
+        checkOpen();
+        int shard = shardOf(key);
+        pending[shard][pendingCounts[shard]++] = key;
+        dirty = true;
+        if (pendingCounts[shard] == BATCH_SIZE) {
+            send(shard, null);
+        }
+    }
+
+    /**
+     * Queues every key of an array for insertion into its shard
+     *
+     * @param keys the keys to be inserted
+     * @throws IllegalStateException if the table is closed
+     * @throws RuntimeException if a worker failed to insert an earlier key
+     */
+    public void insertAll(Object[] keys) {
+        for (Object key : keys) {
+            insert(key);
+        }
+    }
+
+    /**
+     * Hands every queued key to the workers and waits until they have inserted them
+     *
+     * @throws IllegalStateException if the table is closed
+     * @throws RuntimeException if a worker failed to insert a key
+     */
+    public void flush() {
+        checkOpen();
+        if (!dirty) {
+            return;
+        }
+        CountDownLatch flushed = new CountDownLatch(shards.length);
+        for (int shard = 0; shard < shards.length; shard++) {
+            send(shard, flushed);
+        }
+        try {
+            flushed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Error: interrupted while flushing shards", e);
+        }
+        dirty = false;
+        checkFailure();
+    }
+
+    /**
+     * Searches for the specified key in its shard, after flushing queued inserts
+     *
+     * @param key the key to be searched for
+     * @return the number of probes required to find the key, or -1 if the key is not found
+     */
+    public int search(Object key) {
+        flush();
+        return shards[shardOf(key)].search(key);
+    }
+
+    /**
+     * Stops the workers. Keys that were queued but not flushed may not have been inserted.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Error: interrupted while stopping shard workers", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of shards
+     *
+     * @return the number of shards
+     */
+    public int getNumShards() {
+        return shards.length;
+    }
+
+    /**
+     * Returns a shard. Only safe to use while no inserts are queued, such as right after flush().
+     *
+     * @param shard the number of the shard
+     * @return the shard's table
+     */
+    public Hashtable getShard(int shard) {
+        return shards[shard];
+    }
+
+    /**
+     * Returns the total capacity of the shards, after flushing queued inserts
+     *
+     * @return the sum of the shard capacities
+     */
+    public int getCapacity() {
+        flush();
+        int capacity = 0;
+        for (Hashtable shard : shards) {
+            capacity += shard.getCapacity();
+        }
+        return capacity;
+    }
+
+    /**
+     * Returns the number of keys in the shards, after flushing queued inserts
+     *
+     * @return the number of distinct keys
+     */
+    public int getNumElements() {
+        flush();
+        int numElements = 0;
+        for (Hashtable shard : shards) {
+            numElements += shard.getNumElements();
+        }
+        return numElements;
+    }
+
+    /**
+     * Returns the total number of duplicate keys in the shards, after flushing queued inserts
+     *
+     * @return the total number of duplicate keys
+     */
+    public int getDuplicateCount() {
+        flush();
+        int duplicateCount = 0;
+        for (Hashtable shard : shards) {
+            duplicateCount += shard.getDuplicateCount();
+        }
+        return duplicateCount;
+    }
+
+    /**
+     * Returns the total number of insertions (probes) in the shards, after flushing queued inserts
+     *
+     * @return the total number of insertions
+     */
+    public int getInsertionCount() {
+        flush();
+        int insertionCount = 0;
+        for (Hashtable shard : shards) {
+            insertionCount += shard.getInsertionCount();
+        }
+        return insertionCount;
+    }
+
+    /**
+     * Returns the largest probe count of any key in the shards, after flushing queued inserts
+     *
+     * @return the largest probe count, or 0 if the table is empty
+     */
+    public int getMaxProbeCount() {
+        flush();
+        int maxProbeCount = 0;
+        for (Hashtable shard : shards) {
+            maxProbeCount = Math.max(maxProbeCount, shard.getMaxProbeCount());
+        }
+        return maxProbeCount;
+    }
+
+    /**
+     * Dumps the contents of the shards to the specified file, after flushing queued
+     * inserts. The shard arrays are numbered as if they were laid end to end, so slot i
+     * of a shard is written as the sum of the capacities of the shards before it plus i.
+     *
+     * @param fileName the name of the file to dump the contents to
+     * @throws FileNotFoundException if the file cannot be created or opened
+     */
+    public void dumpToFile(String fileName) throws FileNotFoundException {
+        flush();
+        try (PrintWriter out = new PrintWriter(fileName)) {
+            int offset = 0;
+            for (Hashtable shard : shards) {
+                shard.finishMigration();
+                for (int i = 0; i < shard.table.length; i++) {
+                    if (shard.table[i] != null) {
+                        out.println("table[" + (offset + i) + "]: " + shard.table[i]);
+                    }
+                }
+                offset += shard.table.length;
+            }
+        }
+    }
+
+    /**
+     * Hands the pending keys of a shard to its worker, blocking while its queue is full
+     *
+     * @param shard the number of the shard
+     * @param flushed the latch of the flush the batch ends, or null
+     */
+    private void send(int shard, CountDownLatch flushed) {
+        Batch batch = new Batch(pending[shard], pendingCounts[shard], flushed);
+        pending[shard] = new Object[BATCH_SIZE];
+        pendingCounts[shard] = 0;
+        try {
+            queues[shard].put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Error: interrupted while queueing keys", e);
+        }
+        checkFailure();
+    }
+
+    /**
+     * Inserts the batches of one shard until close() interrupts the worker. A worker
+     * whose shard throws records the exception and keeps counting flush latches down,
+     * so flush() returns and rethrows it instead of waiting forever.
+     *
+     * @param shard the number of the shard
+     */
+    private void work(int shard) {
+        Hashtable table = shards[shard];
+        try {
+            while (true) {
+                Batch batch = queues[shard].take();
+                try {
+                    if (failure == null) {
+                        for (int i = 0; i < batch.count; i++) {
+                            table.insert(batch.keys[i]);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    failure = e;
+                } finally {
+                    if (batch.flushed != null) {
+                        batch.flushed.countDown();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // close() stops the worker
+        }
+    }
+
+    /**
+     * Throws if the table is closed
+     *
+     * @throws IllegalStateException if the table is closed
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Sharded hashtable is closed");
+        }
+    }
+
+    /**
+     * Rethrows the exception a worker failed with, if any
+     *
+     * @throws RuntimeException if a worker failed to insert a key
+     */
+    private void checkFailure() {
+        RuntimeException e = failure;
+        if (e != null) {
+            throw new RuntimeException("Error: shard worker failed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * The SingleWriterDoubleHashing class extends the SingleWriterHashtable class and implements
+ * the double hashing strategy for open addressing in hash tables searched by many threads
+ * while one thread inserts
+ *
+ * @author Jeremiah Robinson
+ */
+public class SingleWriterDoubleHashing extends SingleWriterHashtable {
+
+    /**
+     * Constructs a new SingleWriterDoubleHashing hashtable with the specified capacity that
+     * grows once it would exceed the given load factor
+     *
+     * @param size the initial capacity of the hashtable
+     * @param maxLoadFactor the maximum ratio of keys to capacity, or 1.0 to never grow
+     */
+    public SingleWriterDoubleHashing(int size, double maxLoadFactor) {
+        super(size, maxLoadFactor);
+    }
+
+    /**
+     * Computes the secondary hash function
+     *
+     * @param key the key to be hashed
+     * @param capacity the capacity of the table being probed
+     * @return the result of the secondary hash function
+     */
+    private int h2(Object key, int capacity) {
+        return 1 + positiveMod(mixedHashCode(key), capacity - 2);
+    }
+
+    /**
+     * Probes the hashtable using the double hashing strategy
+     *
+     * @param key the key to be hashed
+     * @param probeNum the probe number
+     * @param capacity the capacity of the table being probed
+     * @return the index in the hashtable for the given key and probe number
+     */
+    @Override
+    public int hash(Object key, int probeNum, int capacity) {
+        return positiveMod(h1(key, capacity) + probeNum * h2(key, capacity), capacity);
+    }
+}
@@ -0,0 +1,170 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * The SingleWriterHashtable class is an abstract hash table with open addressing that one
+ * thread inserts into while any number of other threads search it, without locks. The
+ * writer fully builds each new entry before storing it into its slot with release
+ * semantics, and readers load slots with acquire semantics, so a reader that sees an
+ * entry also sees its key, and never a half-initialized HashObject. Since there is only
+ * one writer, slots are claimed with plain reads and release stores, not compare-and-set.
+ *
+ * The table grows all at once. The writer rehashes into a new array that readers cannot
+ * see yet, and then publishes it through a volatile field; readers that started on the
+ * old array finish their search on it, which is never written again. Readers read the
+ * published array once per search, so they always probe an array and capacity that
+ * belong together.
+ *
+ * Everything except search() and searchAll() belongs to the writer thread: statistics and
+ * the Bloom filter, which searches would update, are not available, and the counts, the
+ * dump and the hash mixer must only be used from the writer, or before readers start.
+ *
+ * @author Jeremiah Robinson
+ */
+public abstract class SingleWriterHashtable extends Hashtable {
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(HashObject[].class);
+
+    private volatile HashObject[] published;
+
+    /**
+     * Constructs a new SingleWriterHashtable with the specified capacity that grows once
+     * inserting a new key would push it past the given load factor
+     *
+     * @param size the initial capacity of the hashtable
+     * @param maxLoadFactor the maximum ratio of keys to capacity, or 1.0 to never grow
+     * @throws IllegalArgumentException if maxLoadFactor is not in (0, 1]
+     */
+    public SingleWriterHashtable(int size, double maxLoadFactor) {
+        super(size, maxLoadFactor);
+        published = table;
+    }
+
+    /**
+     * Single-writer tables grow all at once, so that readers never probe a half-moved table
+     *
+     * @param slotsPerOperation must be 0
+     * @throws UnsupportedOperationException if slotsPerOperation is not 0
+     */
+    @Override
+    public void setIncrementalResize(int slotsPerOperation) {
+        if (slotsPerOperation != 0) {
+            throw new UnsupportedOperationException("Single-writer hashtables grow all at once");
+        }
+    }
+
+    /**
+     * Searches would record statistics from several threads, so single-writer tables do not keep them
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void enableStatistics() {
+        throw new UnsupportedOperationException("Single-writer hashtables do not record statistics");
+    }
+
+    /**
+     * Searches would count lookups in the Bloom filter from several threads, so single-writer
+     * tables do not keep one
+     *
+     * @param expectedKeys the number of keys the filter is sized for
+     * @param falsePositiveRate the fraction of absent keys it may let through
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void enableBloomFilter(int expectedKeys, double falsePositiveRate) {
+        throw new UnsupportedOperationException("Single-writer hashtables do not keep a Bloom filter");
+    }
+
+    /**
+     * Inserts the specified key into the hashtable, publishing a new entry to readers
+     * with a release store. Must only be called from the writer thread.
+     *
+     * @param key the key to be inserted
+     * @param home ignored, the home slot is always read now
+     * @return the number of probes required to insert the key, or -1 if the key is a duplicate or the table is full
+     */
+    @Override
+    protected int insert(Object key, HashObject home) {
+        for (int i = 0; i < size; i++) {
+            int index = hash(key, i);
+            HashObject obj = table[index];
+            if (obj == null) {
+                if (numElements + 1 > maxLoadFactor * size) {
+                    grow();
+                    return insert(key);
+                }
+                obj = new HashObject(key);
+                obj.setProbeCount(i + 1);
+                SLOTS.setRelease(table, index, obj);
+                numElements++;
+                insertionCount += i + 1;
+                recordFrequency(obj);
+                return i + 1;
+            } else if (obj.getKey().equals(key)) {
+                obj.incrementFrequencyCount();
+                recordFrequency(obj);
+                duplicateCount++;
+                return -1; // Indicate duplicate
+            }
+        }
+
+        System.out.println("Table is full, could not insert key: " + key);
+        return -1; // Table is full
+    }
+
+    /**
+     * Inserts the specified keys one at a time, since each new entry has to be stored
+     * with release semantics
+     *
+     * @param keys the keys to be inserted
+     * @return for each key, the number of probes required to insert it, or -1 if it was a duplicate or the table was full
+     */
+    @Override
+    public int[] insertAll(Object[] keys) {
+        return insertEach(keys);
+    }
+
+    /**
+     * Rehashes every entry into a new array, then publishes it to readers. Until then
+     * readers keep searching the old array, which the rehash only reads.
+     */
+    @Override
+    protected void grow() {
+        super.grow();
+        published = table;
+    }
+
+    /**
+     * Searches for the specified key in the array most recently published by the writer.
+     * Safe to call from any number of threads while the writer inserts.
+     *
+     * @param key the key to be searched for
+     * @return the number of probes required to find the key, or -1 if the key is not found
+     */
+    @Override
+    public int search(Object key) {
+        HashObject[] slots = published;
+        int capacity = slots.length;
+        for (int i = 0; i < capacity; i++) {
+            HashObject current = (HashObject) SLOTS.getAcquire(slots, hash(key, i, capacity));
+            if (current == null) {
+                return -1; // Key not found
+            } else if (current.getKey().equals(key)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Searches for the specified keys one at a time, since every slot has to be read with
+     * acquire semantics
+     *
+     * @param keys the keys to be searched for
+     * @return for each key, the number of probes required to find it, or -1 if it was not found
+     */
+    @Override
+    public int[] searchAll(Object[] keys) {
+        return searchEach(keys);
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * The SingleWriterLinearProbing class extends the SingleWriterHashtable class and implements
+ * the linear probing strategy for open addressing in hash tables searched by many threads
+ * while one thread inserts
+ *
+ * @author Jeremiah Robinson
+ */
+public class SingleWriterLinearProbing extends SingleWriterHashtable {
+
+    /**
+     * Constructs a new SingleWriterLinearProbing hashtable with the specified capacity that
+     * grows once it would exceed the given load factor
+     *
+     * @param size the initial capacity of the hashtable
+     * @param maxLoadFactor the maximum ratio of keys to capacity, or 1.0 to never grow
+     */
+    public SingleWriterLinearProbing(int size, double maxLoadFactor) {
+        super(size, maxLoadFactor);
+    }
+
+    /**
+     * Probes the hashtable using the linear probing strategy
+     *
+     * @param key the key to be hashed
+     * @param probeNum the probe number
+     * @param capacity the capacity of the table being probed
+     * @return the index in the hashtable for the given key and probe number
+     */
+    @Override
+    public int hash(Object key, int probeNum, int capacity) {
+        return positiveMod(h1(key, capacity) + probeNum, capacity);
+    }
+}
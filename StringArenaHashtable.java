@@ -0,0 +1,287 @@
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+/**
+ * The StringArenaHashtable class is an abstract hash table with open addressing that is
+ * specialized for String keys. Instead of keeping a String (an object header, its fields
+ * and a byte array) inside a HashObject for every slot, it copies the characters of each
+ * new key back to back into one growable byte array, the arena. A slot is the offset and
+ * length of its key in the arena plus the key's cached hash code, frequency count and
+ * probe count, all in parallel int arrays, so the table holds a fixed number of arrays
+ * however many keys it has and the keys passed in can be collected as soon as they are
+ * inserted.
+ *
+ * Keys are encoded one char at a time, as UTF-8 does for chars below U+0800 and with
+ * three bytes for every other char, surrogates included. Each char maps to its own
+ * bytes, so a key is compared against the arena while it is encoded, without allocating,
+ * and any String, even one with unpaired surrogates, decodes back to itself. Hash codes
+ * are those of String.hashCode, so keys land in the same slots as in a Hashtable.
+ *
+ * @author Jeremiah Robinson
+ */
+public abstract class StringArenaHashtable {
+    /** Arena bytes reserved per slot when the table is created */
+    static final int INITIAL_BYTES_PER_SLOT = 8;
+
+    protected byte[] arena;
+    protected int arenaLength;
+    protected int[] offsets;
+    protected int[] lengths;
+    protected int[] hashCodes;
+    protected int[] frequencyCounts;
+    protected int[] probeCounts;
+    protected int size;
+    protected int insertionCount;
+    protected int duplicateCount;
+
+    /**
+     * Constructs a new StringArenaHashtable with the specified capacity
+     *
+     * @param size the capacity of the hashtable
+     */
+    public StringArenaHashtable(int size) {
+        this.size = size;
+        this.arena = new byte[size * INITIAL_BYTES_PER_SLOT];
+        this.offsets = new int[size];
+        this.lengths = new int[size];
+        this.hashCodes = new int[size];
+        this.frequencyCounts = new int[size];
+        this.probeCounts = new int[size];
+    }
+
+    /**
+     * Computes the hash value for the given key hash code and probe number
+     *
+     * @param hashCode the hash code of the key, as returned by key.hashCode()
+     * @param probeNum the probe number
+     * @return the index in the hashtable for the given hash code and probe number
+     */
+    public abstract int hash(int hashCode, int probeNum);
+
+    /**
+     * Computes the primary hash function
+     *
+     * @param hashCode the hash code of the key
+     * @return the result of the primary hash function
+     */
+    protected int h1(int hashCode) {
+        return positiveMod(hashCode, size);
+    }
+
+    /**
+     * Inserts the specified key into the hashtable, copying it into the arena if it is new
+     *
+     * @param key the key to be inserted
+     * @return the number of probes required to insert the key, or -1 if the key is a duplicate or the table is full
+     */
+    public int insert(String key) {
+        int hashCode = key.hashCode();
+
+        for (int i = 0; i < size; i++) {
+            int index = hash(hashCode, i);
+            if (probeCounts[index] == 0) {
+                offsets[index] = append(key);
+                lengths[index] = arenaLength - offsets[index];
+                hashCodes[index] = hashCode;
+                frequencyCounts[index] = 1;
+                probeCounts[index] = i + 1;
+                insertionCount += i + 1;
+                return i + 1;
+            } else if (hashCodes[index] == hashCode && matches(key, offsets[index], lengths[index])) {
+                frequencyCounts[index]++;
+                duplicateCount++;
+                return -1; // Indicate duplicate
+            }
+        }
+
+        System.out.println("Table is full, could not insert key: " + key);
+        return -1; // Table is full
+    }
+
+    /**
+     * Searches for the specified key in the hashtable
+     *
+     * @param key the key to be searched for
+     * @return the number of probes required to find the key, or -1 if the key is not found
+     */
+    public int search(String key) {
+        int hashCode = key.hashCode();
+
+        for (int i = 0; i < size; i++) {
+            int index = hash(hashCode, i);
+            if (probeCounts[index] == 0) {
+                return -1; // Key not found
+            } else if (hashCodes[index] == hashCode && matches(key, offsets[index], lengths[index])) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the key stored in a slot, decoded from the arena
+     *
+     * @param index the index of the slot
+     * @return the key, or null if the slot is empty
+     */
+    public String getKey(int index) {
+        if (probeCounts[index] == 0) {
+            return null;
+        }
+        int offset = offsets[index];
+        int end = offset + lengths[index];
+        char[] chars = new char[lengths[index]];
+        int count = 0;
+        while (offset < end) {
+            int b = arena[offset++] & 0xff;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if (b < 0xe0) {
+                chars[count++] = (char) (((b & 0x1f) << 6) | (arena[offset++] & 0x3f));
+            } else {
+                chars[count++] = (char) (((b & 0x0f) << 12) | ((arena[offset] & 0x3f) << 6) | (arena[offset + 1] & 0x3f));
+                offset += 2;
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * Appends the encoded characters of a key to the arena, growing it if needed
+     *
+     * @param key the key
+     * @return the offset of the key in the arena
+     */
+    private int append(String key) {
+        int offset = arenaLength;
+        if (arena.length - offset < 3 * key.length()) {
+            long needed = (long) offset + 3L * key.length();
+            if (needed > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Key arena is full at " + offset + " bytes");
+            }
+            arena = Arrays.copyOf(arena, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, 2L * arena.length)));
+        }
+        int position = offset;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x80) {
+                arena[position++] = (byte) c;
+            } else if (c < 0x800) {
+                arena[position++] = (byte) (0xc0 | (c >> 6));
+                arena[position++] = (byte) (0x80 | (c & 0x3f));
+            } else {
+                arena[position++] = (byte) (0xe0 | (c >> 12));
+                arena[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                arena[position++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        arenaLength = position;
+        return offset;
+    }
+
+    /**
+     * Compares a key with the bytes of a stored key, encoding the key as it goes
+     *
+     * @param key the key
+     * @param offset the offset of the stored key in the arena
+     * @param length the length of the stored key in bytes
+     * @return true if the key encodes to exactly the stored bytes
+     */
+    private boolean matches(String key, int offset, int length) {
+        if (key.length() > length || 3 * key.length() < length) {
+            return false;
+        }
+        int end = offset + length;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x80) {
+                if (offset >= end || arena[offset++] != (byte) c) {
+                    return false;
+                }
+            } else if (c < 0x800) {
+                if (end - offset < 2 || arena[offset] != (byte) (0xc0 | (c >> 6))
+                        || arena[offset + 1] != (byte) (0x80 | (c & 0x3f))) {
+                    return false;
+                }
+                offset += 2;
+            } else {
+                if (end - offset < 3 || arena[offset] != (byte) (0xe0 | (c >> 12))
+                        || arena[offset + 1] != (byte) (0x80 | ((c >> 6) & 0x3f))
+                        || arena[offset + 2] != (byte) (0x80 | (c & 0x3f))) {
+                    return false;
+                }
+                offset += 3;
+            }
+        }
+        return offset == end;
+    }
+
+    /**
+     * Computes the positive modulus of the given dividend and divisor
+     *
+     * @param dividend the dividend
+     * @param divisor the divisor
+     * @return the positive modulus
+     */
+    protected int positiveMod(int dividend, int divisor) {
+        int remainder = dividend % divisor;
+        if (remainder < 0) {
+            remainder += divisor;
+        }
+        return remainder;
+    }
+
+    /**
+     * Returns the total number of duplicate keys in the hashtable
+     *
+     * @return the total number of duplicate keys
+     */
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /**
+     * Returns the total number of insertions (probes) in the hashtable
+     *
+     * @return the total number of insertions
+     */
+    public int getInsertionCount() {
+        return insertionCount;
+    }
+
+    /**
+     * Returns the number of arena bytes the keys take up
+     *
+     * @return the number of bytes used
+     */
+    public int getArenaLength() {
+        return arenaLength;
+    }
+
+    /**
+     * Returns the size of the arena, including the room not used yet
+     *
+     * @return the number of bytes allocated
+     */
+    public int getArenaCapacity() {
+        return arena.length;
+    }
+
+    /**
+     * Dumps the contents of the hashtable to the specified file, using the same
+     * format as Hashtable.dumpToFile
+     *
+     * @param fileName the name of the file to dump the contents to
+     * @throws FileNotFoundException if the file cannot be created or opened
+     */
+    public void dumpToFile(String fileName) throws FileNotFoundException {
+        try (PrintWriter out = new PrintWriter(fileName)) {
+            for (int i = 0; i < size; i++) {
+                if (probeCounts[i] != 0) {
+                    out.println("table[" + i + "]: " + getKey(i) + " " + frequencyCounts[i] + " " + probeCounts[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,470 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * The SwissTableHashing class extends the Hashtable class with SwissTable-style control
+ * bytes. Next to the table it keeps one control byte per slot holding a 7-bit fingerprint
+ * of the key's hash code, or a marker for an empty or deleted slot. Probing reads eight
+ * control bytes at a time as one long and finds fingerprint matches and empty slots with
+ * SIMD-within-a-register bit tricks, so equals() is only called on slots whose
+ * fingerprint matches.
+ *
+ * Groups are scanned in linear probing order starting at the key's home slot, so as long
+ * as nothing is deleted every key lands in the same slot with the same probe count as it
+ * would in LinearProbing.
+ *
+ * @author Jeremiah Robinson
+ */
+public class SwissTableHashing extends Hashtable {
+    /** Number of control bytes scanned at once */
+    protected static final int GROUP_WIDTH = 8;
+    /** Control byte of a slot that has never been used */
+    protected static final byte EMPTY = (byte) 0x80;
+    /** Control byte of a slot whose key was deleted */
+    protected static final byte DELETED = (byte) 0xFE;
+
+    private static final long LSBS = 0x0101010101010101L;
+    private static final long MSBS = 0x8080808080808080L;
+    private static final VarHandle CONTROL_WORDS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * One control byte per slot, followed by copies of the first GROUP_WIDTH - 1 bytes so
+     * that a group starting near the end of the table can be read as one long
+     */
+    protected byte[] control;
+    /** Number of slots whose control byte is DELETED */
+    protected int numDeleted;
+    protected long keyComparisonCount;
+
+    /**
+     * Constructs a new SwissTableHashing hashtable with the specified capacity
+     *
+     * @param size the capacity of the hashtable
+     */
+    public SwissTableHashing(int size) {
+        this(size, 1.0);
+    }
+
+    /**
+     * Constructs a new SwissTableHashing hashtable with the specified capacity that grows
+     * once it would exceed the given load factor
+     *
+     * @param size the initial capacity of the hashtable
+     * @param maxLoadFactor the maximum ratio of keys to capacity, or 1.0 to never grow
+     */
+    public SwissTableHashing(int size, double maxLoadFactor) {
+        super(size, maxLoadFactor);
+        this.control = newControl(size);
+    }
+
+    /**
+     * Probes the hashtable using the linear probing strategy
+     *
+     * @param key the key to be hashed
+     * @param probeNum the probe number
+     * @param capacity the capacity of the table being probed
+     * @return the index in the hashtable for the given key and probe number
+     */
+    @Override
+    public int hash(Object key, int probeNum, int capacity) {
+        return positiveMod(h1(key, capacity) + probeNum, capacity);
+    }
+
+    /**
+     * The control bytes are rebuilt whenever the table grows, so only rehashing all at
+     * once is supported
+     *
+     * @param slotsPerOperation must be 0
+     * @throws UnsupportedOperationException if slotsPerOperation is not 0
+     */
+    @Override
+    public void setIncrementalResize(int slotsPerOperation) {
+        if (slotsPerOperation != 0) {
+            throw new UnsupportedOperationException("SwissTable hashing does not support incremental resizing");
+        }
+    }
+
+    /**
+     * Inserts the specified key into the hashtable. A deleted slot passed on the way is
+     * reused for a new key. Deleted slots count toward the load factor like keys do, since
+     * a search only stops at an empty slot.
+     *
+     * @param key the key to be inserted
+     * @return the number of probes required to insert the key, or -1 if the key is a duplicate or the table is full
+     */
+    @Override
+    public int insert(Object key) {
+        long fingerprint = fingerprint(mixedHashCode(key));
+        int home = h1(key);
+        int pos = home;
+        int target = -1;
+        long comparisonsBefore = keyComparisonCount;
+
+        for (int scanned = 0; scanned < size; scanned += GROUP_WIDTH) {
+            long group = (long) CONTROL_WORDS.get(control, pos);
+            long inRange = rangeMask(size - scanned);
+            long empties = matchEmpty(group) & inRange;
+            long beforeEmpty = empties == 0 ? inRange : Long.lowestOneBit(empties) - 1;
+
+            int index = findMatch(key, group, fingerprint, beforeEmpty, pos);
+            if (index != -1) {
+                table[index].incrementFrequencyCount();
+                recordFrequency(table[index]);
+                duplicateCount++;
+                recordInsert(table[index].getProbeCount(), (int) (keyComparisonCount - comparisonsBefore));
+                return -1; // Indicate duplicate
+            }
+
+            long deleted = matchEmptyOrDeleted(group) & ~empties & beforeEmpty;
+            if (target == -1 && deleted != 0) {
+                target = slot(pos, deleted);
+            }
+            if (empties != 0) {
+                if (target == -1) {
+                    target = slot(pos, empties);
+                }
+                break;
+            }
+            pos = pos + GROUP_WIDTH >= size ? pos + GROUP_WIDTH - size : pos + GROUP_WIDTH;
+        }
+
+        if (target == -1) {
+            recordInsert(size, (int) (keyComparisonCount - comparisonsBefore));
+            System.out.println("Table is full, could not insert key: " + key);
+            return -1; // Table is full
+        }
+        if (control[target] == EMPTY && numElements + numDeleted + 1 > maxLoadFactor * size) {
+            resize();
+            return insert(key);
+        }
+        if (control[target] == DELETED) {
+            numDeleted--;
+        }
+
+        int probeCount = positiveMod(target - home, size) + 1;
+        HashObject obj = new HashObject(key);
+        obj.setProbeCount(probeCount);
+        table[target] = obj;
+        setControl(target, (byte) fingerprint);
+        numElements++;
+        insertionCount += probeCount;
+        recordInsert(probeCount, (int) (keyComparisonCount - comparisonsBefore));
+        recordFrequency(obj);
+        return probeCount;
+    }
+
+    /**
+     * Searches for the specified key in the hashtable
+     *
+     * @param key the key to be searched for
+     * @return the number of probes required to find the key, or -1 if the key is not found
+     */
+    @Override
+    public int search(Object key) {
+        if (filterRejects(key)) {
+            return -1; // Key not found
+        }
+        long comparisonsBefore = keyComparisonCount;
+        int index = indexOf(key);
+        if (statistics != null) {
+            int probes = index == -1 ? probesToEmpty(key) : table[index].getProbeCount();
+            recordSearch(probes, (int) (keyComparisonCount - comparisonsBefore), index != -1);
+        } else if (index == -1) {
+            recordSearch(0, 0, false); // Counts a false positive of the Bloom filter, if any
+        }
+        return index == -1 ? -1 : table[index].getProbeCount();
+    }
+
+    /**
+     * Inserts the specified keys one at a time, since probing scans groups of control bytes
+     * rather than single slots
+     *
+     * @param keys the keys to be inserted
+     * @return for each key, the number of probes required to insert it, or -1 if it was a duplicate or the table was full
+     */
+    @Override
+    public int[] insertAll(Object[] keys) {
+        return insertEach(keys);
+    }
+
+    /**
+     * Searches for the specified keys one at a time, since probing scans groups of control
+     * bytes rather than single slots
+     *
+     * @param keys the keys to be searched for
+     * @return for each key, the number of probes required to find it, or -1 if it was not found
+     */
+    @Override
+    public int[] searchAll(Object[] keys) {
+        return searchEach(keys);
+    }
+
+    /**
+     * Returns the number of slots from a key's home slot up to and including the first
+     * empty one, which is how far a failed search for the key scans
+     *
+     * @param key the key
+     * @return the number of slots scanned, or size if there is no empty slot
+     */
+    private int probesToEmpty(Object key) {
+        int home = h1(key);
+        int pos = home;
+        for (int scanned = 0; scanned < size; scanned += GROUP_WIDTH) {
+            long group = (long) CONTROL_WORDS.get(control, pos);
+            long empties = matchEmpty(group) & rangeMask(size - scanned);
+            if (empties != 0) {
+                return positiveMod(slot(pos, empties) - home, size) + 1;
+            }
+            pos = pos + GROUP_WIDTH >= size ? pos + GROUP_WIDTH - size : pos + GROUP_WIDTH;
+        }
+        return size;
+    }
+
+    /**
+     * Deletes the specified key from the hashtable, leaving a deleted marker in its
+     * control byte so later searches keep probing past the slot
+     *
+     * @param key the key to be deleted
+     * @return the number of probes required to find the key, or -1 if the key is not found
+     */
+    public int delete(Object key) {
+        int index = indexOf(key);
+        if (index == -1) {
+            return -1;
+        }
+        HashObject obj = table[index];
+        table[index] = null;
+        setControl(index, DELETED);
+        numElements--;
+        numDeleted++;
+        insertionCount -= obj.getProbeCount();
+        duplicateCount -= obj.getFrequencyCount() - 1;
+        recordDeletion(obj);
+        return obj.getProbeCount();
+    }
+
+    /**
+     * Finds the slot holding a key by scanning control byte groups from its home slot
+     *
+     * @param key the key to be searched for
+     * @return the index of the slot holding the key, or -1 if the key is not found
+     */
+    private int indexOf(Object key) {
+        long fingerprint = fingerprint(mixedHashCode(key));
+        int pos = h1(key);
+
+        for (int scanned = 0; scanned < size; scanned += GROUP_WIDTH) {
+            long group = (long) CONTROL_WORDS.get(control, pos);
+            long inRange = rangeMask(size - scanned);
+            long empties = matchEmpty(group) & inRange;
+            long beforeEmpty = empties == 0 ? inRange : Long.lowestOneBit(empties) - 1;
+
+            int index = findMatch(key, group, fingerprint, beforeEmpty, pos);
+            if (index != -1 || empties != 0) {
+                return index;
+            }
+            pos = pos + GROUP_WIDTH >= size ? pos + GROUP_WIDTH - size : pos + GROUP_WIDTH;
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the key against every slot of a group whose fingerprint matches
+     *
+     * @param key the key to be searched for
+     * @param group the control bytes of the group
+     * @param fingerprint the fingerprint of the key
+     * @param mask the bits of the group that may be considered
+     * @param pos the index of the first slot of the group
+     * @return the index of the slot holding the key, or -1 if it is not in this group
+     */
+    private int findMatch(Object key, long group, long fingerprint, long mask, int pos) {
+        long matches = matchByte(group, fingerprint) & mask;
+        while (matches != 0) {
+            int index = slot(pos, matches);
+            keyComparisonCount++;
+            if (table[index].getKey().equals(key)) {
+                return index;
+            }
+            matches &= matches - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Makes room for one more key: rehashes at the same capacity if dropping the deleted
+     * slots leaves the table at most half as full as the maximum load factor allows, and
+     * otherwise grows
+     */
+    private void resize() {
+        if ((numElements + 1) * 2 <= maxLoadFactor * size) {
+            rehash(size);
+        } else {
+            grow();
+        }
+    }
+
+    /**
+     * Grows the table to the next twin prime at least GROWTH_FACTOR times the current
+     * capacity and reinserts every entry, rebuilding the control bytes
+     */
+    @Override
+    protected void grow() {
+        rehash(nextCapacity(size));
+    }
+
+    /**
+     * Reinserts every entry into a new table of the given capacity, rebuilding the control
+     * bytes without any deleted slots
+     *
+     * @param capacity the capacity of the new table
+     */
+    private void rehash(int capacity) {
+        HashObject[] oldEntries = table;
+        size = capacity;
+        table = new HashObject[size];
+        control = newControl(size);
+        numDeleted = 0;
+        insertionCount = 0;
+        for (HashObject obj : oldEntries) {
+            if (obj != null) {
+                insertionCount += place(obj);
+            }
+        }
+    }
+
+    /**
+     * Places an entry that is known not to be in the table into the first empty or
+     * deleted slot of its probe sequence and records its probe count
+     *
+     * @param obj the entry to be placed
+     * @return the number of probes required to place the entry
+     */
+    @Override
+    protected int place(HashObject obj) {
+        int home = h1(obj.getKey());
+        int pos = home;
+        for (int scanned = 0; scanned < size; scanned += GROUP_WIDTH) {
+            long group = (long) CONTROL_WORDS.get(control, pos);
+            long free = matchEmptyOrDeleted(group) & rangeMask(size - scanned);
+            if (free != 0) {
+                int index = slot(pos, free);
+                int probeCount = positiveMod(index - home, size) + 1;
+                table[index] = obj;
+                obj.setProbeCount(probeCount);
+                setControl(index, (byte) fingerprint(mixedHashCode(obj.getKey())));
+                return probeCount;
+            }
+            pos = pos + GROUP_WIDTH >= size ? pos + GROUP_WIDTH - size : pos + GROUP_WIDTH;
+        }
+        throw new IllegalStateException("No empty slot for key: " + obj.getKey());
+    }
+
+    /**
+     * Returns the number of times equals() has been called on a stored key
+     *
+     * @return the number of key comparisons
+     */
+    public long getKeyComparisonCount() {
+        return keyComparisonCount;
+    }
+
+    /**
+     * Allocates the control bytes for a table of the given capacity, all empty
+     *
+     * @param capacity the capacity of the table
+     * @return the new control bytes
+     */
+    private static byte[] newControl(int capacity) {
+        byte[] bytes = new byte[capacity + GROUP_WIDTH - 1];
+        Arrays.fill(bytes, EMPTY);
+        return bytes;
+    }
+
+    /**
+     * Sets the control byte of a slot, and its copy past the end of the table if it has one
+     *
+     * @param index the index of the slot
+     * @param value the new control byte
+     */
+    private void setControl(int index, byte value) {
+        control[index] = value;
+        if (index < GROUP_WIDTH - 1) {
+            control[size + index] = value;
+        }
+    }
+
+    /**
+     * Computes the 7-bit fingerprint of a hash code. It is taken from the top bits after
+     * mixing, so it is independent of the low bits h1 uses to pick the home slot.
+     *
+     * @param hashCode the hash code of the key
+     * @return the fingerprint, from 0 to 127
+     */
+    private static long fingerprint(int hashCode) {
+        int h = hashCode;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h >>> 25;
+    }
+
+    /**
+     * Returns the index of the slot marked by the lowest set bit of a group mask
+     *
+     * @param pos the index of the first slot of the group
+     * @param mask a mask with the high bit of each marked byte set
+     * @return the index of the first marked slot
+     */
+    private int slot(int pos, long mask) {
+        int index = pos + (Long.numberOfTrailingZeros(mask) >>> 3);
+        return index >= size ? index - size : index;
+    }
+
+    /**
+     * Returns a mask covering the bytes of a group that have not been scanned yet
+     *
+     * @param remaining the number of slots left to scan
+     * @return a mask of the first min(remaining, GROUP_WIDTH) bytes
+     */
+    private static long rangeMask(int remaining) {
+        return remaining >= GROUP_WIDTH ? -1L : (1L << (remaining * 8)) - 1;
+    }
+
+    /**
+     * Marks the bytes of a group that equal the given fingerprint. A byte just above a
+     * real match can be marked as well, which only costs one extra equals() call.
+     *
+     * @param group the control bytes of the group
+     * @param fingerprint the fingerprint to look for
+     * @return a mask with the high bit of each matching byte set
+     */
+    private static long matchByte(long group, long fingerprint) {
+        long x = group ^ (LSBS * fingerprint);
+        return (x - LSBS) & ~x & MSBS;
+    }
+
+    /**
+     * Marks the empty bytes of a group: the high bit is set and bit 1 is clear only for EMPTY
+     *
+     * @param group the control bytes of the group
+     * @return a mask with the high bit of each empty byte set
+     */
+    private static long matchEmpty(long group) {
+        return group & (~group << 6) & MSBS;
+    }
+
+    /**
+     * Marks the empty and deleted bytes of a group: only full slots have a clear high bit
+     *
+     * @param group the control bytes of the group
+     * @return a mask with the high bit of each empty or deleted byte set
+     */
+    private static long matchEmptyOrDeleted(long group) {
+        return group & MSBS;
+    }
+}
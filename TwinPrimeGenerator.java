@@ -1,14 +1,33 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
 /**
  * The TwinPrimeGenerator class provides a method to generate a twin prime number
  * within a specified range
- * 
+ *
+ * Candidates are tested with a segmented Sieve of Eratosthenes: the primes up to the
+ * square root of Integer.MAX_VALUE are sieved once, and each search sieves a window of
+ * the range at a time with them. Every answer is also remembered as a rung of a capacity
+ * ladder, so asking again for any bound the rung covers is a single map lookup.
+ *
  * @author Jeremiah Robinson
  */
 public class TwinPrimeGenerator {
+    /** Number of candidates sieved at once */
+    private static final int SEGMENT_SIZE = 1 << 15;
+    /** Every composite int has a prime factor no larger than this */
+    private static final int BASE_PRIME_LIMIT = 46341;
+
+    /**
+     * The capacity ladder: each entry maps a lower bound to the smaller prime of the first
+     * twin pair at or above it, which means no twin pair starts between the two
+     */
+    private static final ConcurrentSkipListMap<Integer, Integer> ladder = new ConcurrentSkipListMap<>();
 
     /**
      * Generates a twin prime number within the specified range [min, max].
-     * This method finds the smallest set of twin primes in the given range 
+     * This method finds the smallest set of twin primes in the given range
      * and returns the larger of the two.
      *
      * @param min the minimum value of the range (inclusive)
@@ -17,34 +36,113 @@ public class TwinPrimeGenerator {
      * @throws IllegalArgumentException if no twin primes are found in the given range
      */
     public static int generateTwinPrime(int min, int max) {
-        for (int i = min; i <= max - 2; i++) {
-            if (isPrime(i) && isPrime(i + 2)) {
-                return i + 2;
-            }
+        int lower = lowerTwinPrimeAtLeast(min);
+        if (lower == -1 || lower > max - 2) {
+            throw new IllegalArgumentException("No twin primes found in the given range.");
         }
-        throw new IllegalArgumentException("No twin primes found in the given range.");
+        return lower + 2;
+    }
+
+    /**
+     * Finds the smallest set of twin primes whose smaller prime is at least min
+     * and returns the larger of the two.
+     *
+     * @param min the lower bound for the smaller prime of the pair
+     * @return the larger prime in the smallest set of twin primes at or above min
+     * @throws IllegalArgumentException if no twin primes fit in an int above min
+     */
+    public static int nextTwinPrimeAtLeast(int min) {
+        return generateTwinPrime(min, Integer.MAX_VALUE);
     }
 
     /**
-     * Checks if a given number is prime.
+     * Finds the smaller prime of the first twin pair at or above min, from the ladder if
+     * a rung covers min and otherwise by sieving, adding a rung for the answer
      *
-     * @param num the number to check
-     * @return true if the number is prime, false otherwise
+     * @param min the lower bound for the smaller prime of the pair
+     * @return the smaller prime of the pair, or -1 if no twin pair fits in an int above min
      */
-    private static boolean isPrime(int num) {
-        if (num <= 1) {
-            return false;
+    private static int lowerTwinPrimeAtLeast(int min) {
+        Map.Entry<Integer, Integer> rung = ladder.floorEntry(min);
+        if (rung != null && rung.getValue() >= min) {
+            return rung.getValue();
         }
+        int lower = sieveForTwinPrime(Math.max(min, 2));
+        if (lower != -1) {
+            ladder.put(min, lower);
+        }
+        return lower;
+    }
 
-        if (num == 2) {
-            return true;
+    /**
+     * Sieves one segment after another, starting at min, until it finds two primes that
+     * differ by 2. Each segment overlaps the next by two candidates so that no pair is
+     * split between them.
+     *
+     * @param min the lower bound for the smaller prime of the pair, at least 2
+     * @return the smaller prime of the pair, or -1 if no twin pair fits in an int above min
+     */
+    private static int sieveForTwinPrime(int min) {
+        int[] basePrimes = BasePrimes.PRIMES;
+        boolean[] composite = new boolean[SEGMENT_SIZE + 2];
+
+        for (long low = min; low <= Integer.MAX_VALUE - 2; low += SEGMENT_SIZE) {
+            long high = Math.min(low + SEGMENT_SIZE + 2, (long) Integer.MAX_VALUE + 1);
+            int length = (int) (high - low);
+            Arrays.fill(composite, 0, length, false);
+
+            for (int p : basePrimes) {
+                long square = (long) p * p;
+                if (square >= high) {
+                    break;
+                }
+                long first = Math.max(square, (low + p - 1) / p * p);
+                for (long multiple = first; multiple < high; multiple += p) {
+                    composite[(int) (multiple - low)] = true;
+                }
+            }
+
+            for (int i = 0; i + 2 < length; i++) {
+                if (!composite[i] && !composite[i + 2]) {
+                    return (int) (low + i);
+                }
+            }
         }
+        return -1;
+    }
+
+    /**
+     * Holds the primes up to BASE_PRIME_LIMIT, sieved the first time they are needed
+     */
+    private static class BasePrimes {
+        static final int[] PRIMES = sieve(BASE_PRIME_LIMIT);
+
+        /**
+         * Sieves the primes up to the given limit
+         *
+         * @param limit the largest number to check
+         * @return the primes up to limit, in increasing order
+         */
+        private static int[] sieve(int limit) {
+            boolean[] composite = new boolean[limit + 1];
+            int count = 0;
+            for (int i = 2; i <= limit; i++) {
+                if (!composite[i]) {
+                    count++;
+                    for (long j = (long) i * i; j <= limit; j += i) {
+                        composite[(int) j] = true;
+                    }
+                }
+            }
 
-        for (int i = 2; i <= Math.sqrt(num); i++) {
-            if (num % i == 0) {
-                return false;
+            int[] primes = new int[count];
+            int n = 0;
+            for (int i = 2; i <= limit; i++) {
+                if (!composite[i]) {
+                    primes[n++] = i;
+                }
             }
+            return primes;
         }
-        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The HashtableBenchmarks class is the JMH benchmark of insert, successful search and
+ * failed search for every probing strategy, load factor and data source, one key at a
+ * time or through the batched insertAll() and searchAll(). Each combination of
+ * parameters runs in a JVM of its own, so the JIT only ever sees one table class.
+ *
+ * Searches take one key per call, cycling through the keys, and are reported in ns/op.
+ * Inserts fill a new empty table with every key of the stream per call, since a table
+ * cannot take the same keys twice, and are reported in us/op for the whole stream.
+ *
+ * JMH only accepts benchmarks in a named package, which cannot refer to the classes of
+ * the default package, so the keys and tables come from HashtableBenchmark through
+ * reflection during setup, and the timed methods call the tables through the JDK
+ * functional interfaces it returns.
+ *
+ * @author Jeremiah Robinson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HashtableBenchmarks {
+    @Param({"linear", "double", "robinhood", "cuckoo", "swiss", "fastlinear", "fastdouble"})
+    public String strategy;
+
+    @Param({"0.5", "0.9", "0.99"})
+    public double loadFactor;
+
+    @Param({"1", "2", "3"})
+    public int dataSource;
+
+    /** The requested capacity, rounded up to a twin prime, or to a power of two for MASK tables */
+    @Param({"95791"})
+    public int capacity;
+
+    /** False-positive rate of a Bloom filter in front of searches, or 0 for none */
+    @Param({"0"})
+    public double bloom;
+
+    private Object[] stream;
+    private Object[] present;
+    private Object[] missing;
+    private ToIntFunction<Object> search;
+    private Function<Object[], int[]> searchAll;
+    private int nextPresent;
+    private int nextMissing;
+
+    /**
+     * A new empty table for every call of an insert benchmark
+     */
+    @State(Scope.Thread)
+    public static class EmptyTable {
+        ToIntFunction<Object> insert;
+        Function<Object[], int[]> insertAll;
+
+        @Setup(Level.Invocation)
+        public void setUp(HashtableBenchmarks benchmarks) {
+            Object table = benchmarks.buildTable(false);
+            insert = call("inserter", table);
+            insertAll = call("batchInserter", table);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Object[][] keys = call("buildKeys", strategy, capacity, dataSource, loadFactor);
+        stream = keys[0];
+        present = keys[1];
+        missing = keys[2];
+        if (missing.length == 0) {
+            throw new IllegalStateException("No keys are left in data source " + dataSource + " to search for misses");
+        }
+        Object table = buildTable(true);
+        search = call("searcher", table);
+        searchAll = call("batchSearcher", table);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long insert(EmptyTable table) {
+        long sum = 0;
+        for (Object key : stream) {
+            sum += table.insert.applyAsInt(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int searchHit() {
+        Object key = present[nextPresent];
+        nextPresent = nextPresent + 1 == present.length ? 0 : nextPresent + 1;
+        return search.applyAsInt(key);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int searchMiss() {
+        Object key = missing[nextMissing];
+        nextMissing = nextMissing + 1 == missing.length ? 0 : nextMissing + 1;
+        return search.applyAsInt(key);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] batchInsert(EmptyTable table) {
+        return table.insertAll.apply(stream);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] batchSearchHit() {
+        return searchAll.apply(present);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] batchSearchMiss() {
+        return searchAll.apply(missing);
+    }
+
+    /**
+     * Builds a table for this benchmark's parameters
+     *
+     * @param loaded whether to insert the key stream into it
+     * @return the table
+     */
+    Object buildTable(boolean loaded) {
+        return call("buildTable", strategy, capacity, present.length, bloom, loaded ? stream : new Object[0]);
+    }
+
+    /**
+     * Calls one of the public static methods of HashtableBenchmark, which have distinct names
+     *
+     * @param name the name of the method
+     * @param args the arguments
+     * @return what the method returned
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T call(String name, Object... args) {
+        try {
+            for (Method method : Class.forName("HashtableBenchmark").getMethods()) {
+                if (method.getName().equals(name)) {
+                    return (T) method.invoke(null, args);
+                }
+            }
+            throw new IllegalStateException("HashtableBenchmark has no method " + name);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("HashtableBenchmark." + name + " failed", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot call HashtableBenchmark." + name, e);
+        }
+    }
+}
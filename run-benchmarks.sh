@@ -0,0 +1,37 @@
+#!/bin/sh
+
+# Runs the JMH benchmarks with Gradle, then copies the CSV results JMH writes to a file
+# and, if given one, compares them with an earlier results file. --output=<file> and
+# --baseline=<file> are options of this script; any other arguments go to JMH, for example:
+#   ./run-benchmarks.sh -p strategy=linear,double -p loadFactor=0.9 searchHit
+#   ./run-benchmarks.sh --output=after.csv --baseline=before.csv
+
+output=benchmark-results.csv
+baseline=
+jmhArgs=
+for arg in "$@"
+do
+    case "$arg" in
+        --output=*) output="${arg#--output=}" ;;
+        --baseline=*) baseline="${arg#--baseline=}" ;;
+        *) jmhArgs="$jmhArgs $arg" ;;
+    esac
+done
+
+echo
+echo "Building and running the benchmarks"
+echo
+if ! gradle -q jmh --args="$jmhArgs"
+then
+    echo
+    echo "The benchmarks did not run!! "
+    echo
+    exit 1
+fi
+
+cp build/jmh-results.csv "$output" || exit 1
+echo "Saved results to $output"
+if test -n "$baseline"
+then
+    java -cp build/classes/java/main HashtableBenchmark "$output" "$baseline"
+fi